@@ -0,0 +1,117 @@
+package com.dilshan.testing.benchmark;
+
+import com.dilshan.testing.cache.EmployeeCache;
+import com.dilshan.testing.cache.EmployeeExistenceFilter;
+import com.dilshan.testing.cache.EmployeeListSnapshot;
+import com.dilshan.testing.cache.EmployeeCounter;
+import com.dilshan.testing.cache.EmployeeSearchIndex;
+import com.dilshan.testing.codec.EmployeeStreams;
+import com.dilshan.testing.config.EmployeeProperties;
+import com.dilshan.testing.dto.EmployeePatch;
+import com.dilshan.testing.dto.EmployeeSummary;
+import com.dilshan.testing.model.Employee;
+import com.dilshan.testing.repository.EmployeeRepository;
+import com.dilshan.testing.service.impl.EmployeeServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Fixtures shared by the benchmarks: the application's ObjectMapper and an EmployeeServiceImpl wired to an
+ * in-memory repository stub, so the numbers measure our code and not the database.
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * @return ObjectMapper built by Spring Boot's Jackson auto-configuration from application.yaml,
+     * the same modules and features as the one the controllers use
+     */
+    static ObjectMapper applicationObjectMapper() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(JacksonAutoConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run("--spring.main.banner-mode=off")) {
+            return context.getBean(ObjectMapper.class);
+        }
+    }
+
+    static List<Employee> employees(int count) {
+        List<Employee> employees = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            employees.add(Employee.builder()
+                    .id(id)
+                    .firstName("First" + id)
+                    .lastName("Last" + id)
+                    .email("employee" + id + "@gmail.com")
+                    .build());
+        }
+        return employees;
+    }
+
+    /**
+     * @param cacheEnabled whether reads go through the Caffeine cache or straight to the repository
+     * @return EmployeeServiceImpl without the @Timed proxy, the EntityManager and TransactionTemplate are
+     * only used by the bulk insert and export, which are not benchmarked here
+     */
+    static EmployeeServiceImpl employeeService(List<Employee> employees, boolean cacheEnabled) {
+        //The service only bumps the version of the list snapshot, nothing is encoded with this mapper
+        return employeeService(employees, cacheEnabled, new EmployeeListSnapshot(new EmployeeProperties(), new EmployeeStreams(new ObjectMapper())));
+    }
+
+    /**
+     * @param listSnapshot snapshot of GET /all the service's writes invalidate, shared with the controller
+     */
+    static EmployeeServiceImpl employeeService(List<Employee> employees, boolean cacheEnabled, EmployeeListSnapshot listSnapshot) {
+        EmployeeProperties properties = new EmployeeProperties();
+        properties.getCache().setEnabled(cacheEnabled);
+        EmployeeRepository repository = stubRepository(employees);
+        return new EmployeeServiceImpl(repository, properties, null, null,
+                new EmployeeCache(properties), new EmployeeExistenceFilter(repository, properties), listSnapshot,
+                new EmployeeSearchIndex(repository, properties, null), new EmployeeCounter(repository, properties));
+    }
+
+    /**
+     * Repository answering the single-row reads, the keyset page and the single-statement writes from the
+     * given list, ids are expected to be 1..n. Any other method fails, so a benchmark cannot silently
+     * measure a path the stub does not model.
+     */
+    static EmployeeRepository stubRepository(List<Employee> employees) {
+        List<EmployeeSummary> summaries = employees.stream()
+                .map(e -> new EmployeeSummary(e.getId(), e.getFirstName(), e.getLastName(), e.getEmail()))
+                .toList();
+        return (EmployeeRepository) Proxy.newProxyInstance(EmployeeRepository.class.getClassLoader(),
+                new Class<?>[]{EmployeeRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.ofNullable(byId(employees, (Long) args[0]));
+                    case "findByEmail" -> employees.stream()
+                            .filter(e -> e.getEmail().equals(args[0]))
+                            .findFirst();
+                    case "findAllSummaries" -> summaries;
+                    case "findSummariesByIdGreaterThanOrderByIdAsc" -> {
+                        int from = (int) Math.min((Long) args[0], summaries.size());
+                        yield summaries.subList(from, Math.min(from + ((Limit) args[1]).max(), summaries.size()));
+                    }
+                    case "save", "saveAndFlush" -> args[0];
+                    case "patch" -> byId(employees, (Long) args[0]) != null && !((EmployeePatch) args[1]).isEmpty() ? 1 : 0;
+                    case "deleteEmployeeById" -> byId(employees, (Long) args[0]) != null ? 1 : 0;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "StubEmployeeRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static Employee byId(List<Employee> employees, Long id) {
+        return id >= 1 && id <= employees.size() ? employees.get((int) (id - 1)) : null;
+    }
+}
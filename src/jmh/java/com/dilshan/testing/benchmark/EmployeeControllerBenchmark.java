@@ -0,0 +1,97 @@
+package com.dilshan.testing.benchmark;
+
+import com.dilshan.testing.cache.EmployeeListSnapshot;
+import com.dilshan.testing.codec.EmployeeStreams;
+import com.dilshan.testing.config.EmployeeProperties;
+import com.dilshan.testing.controller.EmployeeController;
+import com.dilshan.testing.exception.GlobalExceptionHandler;
+import com.dilshan.testing.service.impl.EmployeeServiceImpl;
+import com.dilshan.testing.service.impl.EmployeeWriteBehind;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Requests through the DispatcherServlet into EmployeeController: handler mapping, argument resolution,
+ * the service on the repository stub and JSON on both sides. No network or Tomcat, MockMvc hands the
+ * request straight to the servlet, so this is the framework and application share of a request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeControllerBenchmark {
+
+    private MockMvc mockMvc;
+    private MockMvc uncachedMockMvc;
+    private byte[] employeeJson;
+
+    @Setup
+    public void setup() throws Exception {
+        ObjectMapper objectMapper = BenchmarkSupport.applicationObjectMapper();
+        this.mockMvc = mockMvc(objectMapper, true);
+        this.uncachedMockMvc = mockMvc(objectMapper, false);
+        this.employeeJson = objectMapper.writeValueAsBytes(BenchmarkSupport.employees(1).get(0));
+    }
+
+    private static MockMvc mockMvc(ObjectMapper objectMapper, boolean listSnapshotEnabled) {
+        EmployeeStreams employeeStreams = new EmployeeStreams(objectMapper);
+        EmployeeProperties properties = new EmployeeProperties();
+        properties.getListSnapshot().setEnabled(listSnapshotEnabled);
+        EmployeeListSnapshot listSnapshot = new EmployeeListSnapshot(properties, employeeStreams);
+        EmployeeServiceImpl employeeService = BenchmarkSupport.employeeService(BenchmarkSupport.employees(100), true, listSnapshot);
+        EmployeeController controller = new EmployeeController(employeeService, employeeStreams, listSnapshot,
+                new EmployeeWriteBehind(employeeService, properties));
+        return MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .setMessageConverters(new ByteArrayHttpMessageConverter(), new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getEmployeeById() throws Exception {
+        return this.mockMvc.perform(get("/api/employees/id/{id}", 42)).andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getEmployees() throws Exception {
+        return this.mockMvc.perform(get("/api/employees/page")).andReturn().getResponse();
+    }
+
+    /**
+     * GET /all served from the gzip compressed snapshot, against {@link #getAllEmployeesUncached()} querying and
+     * encoding the list on every request.
+     */
+    @Benchmark
+    public MockHttpServletResponse getAllEmployees() throws Exception {
+        return this.mockMvc.perform(get("/api/employees/all").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getAllEmployeesUncached() throws Exception {
+        return this.uncachedMockMvc.perform(get("/api/employees/all").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse createEmployee() throws Exception {
+        return this.mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.employeeJson))
+                .andReturn().getResponse();
+    }
+}
@@ -0,0 +1,185 @@
+package com.dilshan.testing.benchmark;
+
+import com.dilshan.testing.codec.EmployeeProtobuf;
+import com.dilshan.testing.dto.EmployeeSummary;
+import com.dilshan.testing.model.Employee;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of the negotiated body formats against JSON, a single employee (GET /api/employees/id/{id})
+ * and a listing of summaries (GET /api/employees/all). The payload size of each benchmark is reported as its
+ * payloadBytes secondary result, gc.alloc.rate.norm of the gc profiler gives the allocation per operation next to
+ * the throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeEncodingBenchmark {
+
+    @Param({"json", "cbor", "smile", "protobuf"})
+    private String format;
+
+    @Param({"500"})
+    private int listSize;
+
+    private Codec codec;
+    private Employee employee;
+    private List<EmployeeSummary> summaries;
+    private byte[] employeeBytes;
+    private byte[] summariesBytes;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper objectMapper = BenchmarkSupport.applicationObjectMapper();
+        this.codec = switch (this.format) {
+            case "json" -> new JacksonCodec(objectMapper);
+            //Copies of the application's mapper, like the converters and codecs of the API
+            case "cbor" -> new JacksonCodec(objectMapper.copyWith(new CBORFactory()));
+            case "smile" -> new JacksonCodec(objectMapper.copyWith(new SmileFactory()));
+            case "protobuf" -> new ProtobufCodec();
+            default -> throw new IllegalArgumentException("Unknown format " + this.format);
+        };
+        List<Employee> employees = BenchmarkSupport.employees(this.listSize);
+        this.employee = employees.get(0);
+        this.summaries = employees.stream()
+                .map(e -> new EmployeeSummary(e.getId(), e.getFirstName(), e.getLastName(), e.getEmail()))
+                .toList();
+        this.employeeBytes = this.codec.writeEmployee(this.employee);
+        this.summariesBytes = this.codec.writeSummaries(this.summaries);
+    }
+
+    @Benchmark
+    public byte[] encodeEmployee(PayloadSize payloadSize) throws IOException {
+        byte[] bytes = this.codec.writeEmployee(this.employee);
+        payloadSize.payloadBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public Employee decodeEmployee(PayloadSize payloadSize) throws IOException {
+        payloadSize.payloadBytes = this.employeeBytes.length;
+        return this.codec.readEmployee(this.employeeBytes);
+    }
+
+    @Benchmark
+    public byte[] encodeSummaries(PayloadSize payloadSize) throws IOException {
+        byte[] bytes = this.codec.writeSummaries(this.summaries);
+        payloadSize.payloadBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public List<EmployeeSummary> decodeSummaries(PayloadSize payloadSize) throws IOException {
+        payloadSize.payloadBytes = this.summariesBytes.length;
+        return this.codec.readSummaries(this.summariesBytes);
+    }
+
+    /**
+     * Size of the payload a benchmark encodes or decodes. JMH zeroes the counter before every iteration, so the
+     * benchmarks assign it rather than add to it.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+
+        public long payloadBytes;
+    }
+
+    private interface Codec {
+
+        byte[] writeEmployee(Employee employee) throws IOException;
+
+        Employee readEmployee(byte[] bytes) throws IOException;
+
+        byte[] writeSummaries(List<EmployeeSummary> summaries) throws IOException;
+
+        List<EmployeeSummary> readSummaries(byte[] bytes) throws IOException;
+    }
+
+    private static final class JacksonCodec implements Codec {
+
+        private final ObjectWriter employeeWriter;
+        private final ObjectReader employeeReader;
+        private final ObjectWriter summariesWriter;
+        private final ObjectReader summariesReader;
+
+        private JacksonCodec(ObjectMapper objectMapper) {
+            this.employeeWriter = objectMapper.writerFor(Employee.class);
+            this.employeeReader = objectMapper.readerFor(Employee.class);
+            this.summariesWriter = objectMapper.writerFor(new TypeReference<List<EmployeeSummary>>() {
+            });
+            this.summariesReader = objectMapper.readerForListOf(EmployeeSummary.class);
+        }
+
+        @Override
+        public byte[] writeEmployee(Employee employee) throws IOException {
+            return this.employeeWriter.writeValueAsBytes(employee);
+        }
+
+        @Override
+        public Employee readEmployee(byte[] bytes) throws IOException {
+            return this.employeeReader.readValue(bytes);
+        }
+
+        @Override
+        public byte[] writeSummaries(List<EmployeeSummary> summaries) throws IOException {
+            return this.summariesWriter.writeValueAsBytes(summaries);
+        }
+
+        @Override
+        public List<EmployeeSummary> readSummaries(byte[] bytes) throws IOException {
+            return this.summariesReader.readValue(bytes);
+        }
+    }
+
+    /**
+     * Writes through a buffered CodedOutputStream on a byte stream, the way the message converter writes to the
+     * response body.
+     */
+    private static final class ProtobufCodec implements Codec {
+
+        @Override
+        public byte[] writeEmployee(Employee employee) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+            EmployeeProtobuf.writeEmployee(employee, out);
+            out.flush();
+            return bytes.toByteArray();
+        }
+
+        @Override
+        public Employee readEmployee(byte[] bytes) throws IOException {
+            return EmployeeProtobuf.readEmployee(CodedInputStream.newInstance(bytes));
+        }
+
+        @Override
+        public byte[] writeSummaries(List<EmployeeSummary> summaries) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+            EmployeeProtobuf.writeSummaries(summaries, out);
+            out.flush();
+            return bytes.toByteArray();
+        }
+
+        @Override
+        public List<EmployeeSummary> readSummaries(byte[] bytes) throws IOException {
+            return EmployeeProtobuf.readSummaries(CodedInputStream.newInstance(bytes));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.dilshan.testing.benchmark;
+
+import com.dilshan.testing.dto.CursorPage;
+import com.dilshan.testing.dto.EmployeeSummary;
+import com.dilshan.testing.model.Employee;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Employee JSON serialization and deserialization with the application's ObjectMapper, a single employee
+ * (GET /api/employees/id/{id}, POST /api/employees) and a default sized page (GET /api/employees/page).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeJsonBenchmark {
+
+    private ObjectWriter employeeWriter;
+    private ObjectReader employeeReader;
+    private ObjectWriter pageWriter;
+    private Employee employee;
+    private byte[] employeeJson;
+    private CursorPage<EmployeeSummary> page;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper objectMapper = BenchmarkSupport.applicationObjectMapper();
+        //Readers and writers are resolved once, like Spring's message converter caches them per type
+        this.employeeWriter = objectMapper.writerFor(Employee.class);
+        this.employeeReader = objectMapper.readerFor(Employee.class);
+        this.pageWriter = objectMapper.writerFor(CursorPage.class);
+        List<Employee> employees = BenchmarkSupport.employees(51);
+        this.employee = employees.get(0);
+        this.employeeJson = this.employeeWriter.writeValueAsBytes(this.employee);
+        List<EmployeeSummary> summaries = employees.stream()
+                .map(e -> new EmployeeSummary(e.getId(), e.getFirstName(), e.getLastName(), e.getEmail()))
+                .toList();
+        this.page = CursorPage.of(summaries, 50, EmployeeSummary::id);
+    }
+
+    @Benchmark
+    public byte[] serializeEmployee() throws IOException {
+        return this.employeeWriter.writeValueAsBytes(this.employee);
+    }
+
+    @Benchmark
+    public Employee deserializeEmployee() throws IOException {
+        return this.employeeReader.readValue(this.employeeJson);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws IOException {
+        return this.pageWriter.writeValueAsBytes(this.page);
+    }
+}
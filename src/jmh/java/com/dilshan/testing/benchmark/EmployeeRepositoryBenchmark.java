@@ -0,0 +1,170 @@
+package com.dilshan.testing.benchmark;
+
+import com.dilshan.testing.SpringBootTestingApplication;
+import com.dilshan.testing.dto.EmployeeSummary;
+import com.dilshan.testing.model.Employee;
+import com.dilshan.testing.repository.EmployeeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The four hand-written name lookups of EmployeeRepository (JPQL and native SQL, index and named
+ * parameters) next to the derived findByEmail, against a seeded MySQL table of 10k, 1M and 10M rows, with
+ * and without idx_employees_last_first and uk_employees_email. summaryByName reads the same row as a
+ * projection, its distance to jpqlIndexParams is the cost of hydrating a managed entity. The EXPLAIN of
+ * both lookup shapes is logged at the start of every trial.
+ * <p>
+ * Needs a local MySQL, the table is truncated and reseeded, so it runs against its own schema
+ * (BENCHMARK_DATASOURCE_URL, default ems_bench, created if missing), never against the application's:
+ * <pre>
+ * mvn -Pjmh test -Djmh.includes=EmployeeRepositoryBenchmark
+ * </pre>
+ * Seeding 10M rows takes several minutes, a table already holding the requested rows is reused.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Slf4j
+public class EmployeeRepositoryBenchmark {
+
+    private static final String DEFAULT_URL = "jdbc:mysql://localhost:3306/ems_bench?createDatabaseIfNotExist=true";
+    private static final String NAME_INDEX = "idx_employees_last_first";
+    private static final int SEED_BATCH_SIZE = 10_000;
+
+    //Declared before withIndexes, the table is reseeded once per row count and only the indexes change in between
+    @Param({"10000", "1000000", "10000000"})
+    public int rows;
+
+    @Param({"true", "false"})
+    public boolean withIndexes;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeRepository employeeRepository;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.context = new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run("--spring.datasource.url=" + System.getenv().getOrDefault("BENCHMARK_DATASOURCE_URL", DEFAULT_URL),
+                        "--spring.jpa.properties.hibernate.log_slow_query=0",
+                        "--app.employees.cache.enabled=false",
+                        "--app.access-log.enabled=false");
+        this.employeeRepository = this.context.getBean(EmployeeRepository.class);
+        this.jdbcTemplate = this.context.getBean(JdbcTemplate.class);
+        this.seed();
+        this.applyIndexes(this.withIndexes);
+        this.jdbcTemplate.execute("ANALYZE TABLE employees");
+        this.explain("name lookup", "SELECT * FROM employees e WHERE e.first_name = ? AND e.last_name = ?", "First1", "Last1");
+        this.explain("email lookup", "SELECT * FROM employees e WHERE e.email = ?", "employee1@gmail.com");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        //Leave the schema the way the application expects it
+        this.applyIndexes(true);
+        this.context.close();
+    }
+
+    @Benchmark
+    public Employee jpqlIndexParams() {
+        long id = this.randomId();
+        return this.employeeRepository.findByJPQLIndexParams("First" + id, "Last" + id);
+    }
+
+    @Benchmark
+    public Employee jpqlNamedParams() {
+        long id = this.randomId();
+        return this.employeeRepository.findByJPQLNamedParams("First" + id, "Last" + id);
+    }
+
+    @Benchmark
+    public Employee nativeSqlIndexParams() {
+        long id = this.randomId();
+        return this.employeeRepository.findByNativeSqlWithIndexParams("First" + id, "Last" + id);
+    }
+
+    @Benchmark
+    public Employee nativeSqlNamedParams() {
+        long id = this.randomId();
+        return this.employeeRepository.findByNativeSqlWithNamedParams("First" + id, "Last" + id);
+    }
+
+    @Benchmark
+    public Optional<Employee> derivedFindByEmail() {
+        return this.employeeRepository.findByEmail("employee" + this.randomId() + "@gmail.com");
+    }
+
+    @Benchmark
+    public List<EmployeeSummary> summaryByName() {
+        long id = this.randomId();
+        return this.employeeRepository.findByLastNameAndFirstNameAndIdGreaterThanOrderByIdAsc("Last" + id, "First" + id, 0L, Limit.of(1));
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, this.rows + 1);
+    }
+
+    /**
+     * Every row has a unique first and last name, the single-result lookups never see two matches.
+     */
+    private void seed() {
+        Long count = this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employees", Long.class);
+        if (count != null && count == this.rows) {
+            log.info("Reusing {} seeded employees", count);
+            return;
+        }
+        log.info("Seeding {} employees...", this.rows);
+        this.jdbcTemplate.execute("TRUNCATE TABLE employees");
+        //Rows go in without secondary indexes, building them once afterwards is much faster
+        this.applyIndexes(false);
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (long id = 1; id <= this.rows; id++) {
+            batch.add(new Object[]{id, "First" + id, "Last" + id, "employee" + id + "@gmail.com"});
+            if (batch.size() == SEED_BATCH_SIZE || id == this.rows) {
+                this.jdbcTemplate.batchUpdate("INSERT INTO employees (id, first_name, last_name, email, version) VALUES (?, ?, ?, ?, 0)", batch);
+                batch.clear();
+            }
+        }
+        //Keeps ids handed out by the application, if it ever writes to this schema, clear of the seeded ones
+        this.jdbcTemplate.update("UPDATE employees_seq SET next_val = ?", this.rows + Employee.ID_ALLOCATION_SIZE + 1L);
+        log.info("Seeded {} employees", this.rows);
+    }
+
+    private void applyIndexes(boolean present) {
+        this.applyIndex(NAME_INDEX, present, "ALTER TABLE employees ADD INDEX " + NAME_INDEX + " (last_name, first_name)");
+        this.applyIndex(Employee.EMAIL_CONSTRAINT, present,
+                "ALTER TABLE employees ADD CONSTRAINT " + Employee.EMAIL_CONSTRAINT + " UNIQUE (email)");
+    }
+
+    private void applyIndex(String name, boolean present, String create) {
+        Integer existing = this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.statistics"
+                + " WHERE table_schema = DATABASE() AND table_name = 'employees' AND index_name = ?", Integer.class, name);
+        boolean exists = existing != null && existing > 0;
+        if (present && !exists) {
+            this.jdbcTemplate.execute(create);
+        } else if (!present && exists) {
+            this.jdbcTemplate.execute("ALTER TABLE employees DROP INDEX " + name);
+        }
+    }
+
+    private void explain(String label, String sql, Object... args) {
+        this.jdbcTemplate.queryForList("EXPLAIN " + sql, args)
+                .forEach(plan -> log.info("EXPLAIN {} rows={} withIndexes={}: {}", label, this.rows, this.withIndexes, plan));
+    }
+}
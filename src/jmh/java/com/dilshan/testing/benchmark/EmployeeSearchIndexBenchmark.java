@@ -0,0 +1,55 @@
+package com.dilshan.testing.benchmark;
+
+import com.dilshan.testing.cache.EmployeeSearchIndex;
+import com.dilshan.testing.config.EmployeeProperties;
+import com.dilshan.testing.dto.EmployeeSummary;
+import com.dilshan.testing.model.Employee;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typeahead lookups of GET /api/employees/search/prefix on the in-memory index, filled with generated
+ * employees the way the startup scan fills it. Prefixes are drawn from the emails, so the short ones match
+ * many terms and the long ones a single employee, and a lookup returns a page of 10.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class EmployeeSearchIndexBenchmark {
+
+    @Param({"1000000"})
+    private int employees;
+
+    @Param({"3", "10"})
+    private int prefixLength;
+
+    private EmployeeSearchIndex searchIndex;
+
+    @Setup
+    public void setup() {
+        EmployeeProperties properties = new EmployeeProperties();
+        properties.getSearchIndex().setEnabled(true);
+        //The repository is only used by the startup scan, which is replaced by the adds below
+        this.searchIndex = new EmployeeSearchIndex(null, properties, null);
+        for (long id = 1; id <= this.employees; id++) {
+            this.searchIndex.add(Employee.builder()
+                    .id(id)
+                    .firstName("First" + id)
+                    .lastName("Last" + id)
+                    .email("employee" + id + "@gmail.com")
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public List<EmployeeSummary> searchByPrefix() {
+        String email = "employee" + ThreadLocalRandom.current().nextLong(1, this.employees + 1);
+        return this.searchIndex.search(email.substring(0, Math.min(this.prefixLength, email.length())), 10);
+    }
+}
@@ -0,0 +1,63 @@
+package com.dilshan.testing.benchmark;
+
+import com.dilshan.testing.dto.CursorPage;
+import com.dilshan.testing.dto.EmployeePatch;
+import com.dilshan.testing.dto.EmployeeSummary;
+import com.dilshan.testing.model.Employee;
+import com.dilshan.testing.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EmployeeServiceImpl against the in-memory repository stub, with and without the read-through cache.
+ * Lookups spread over 10k ids, so a cached run measures a warm Caffeine hit plus the defensive copy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeServiceBenchmark {
+
+    private static final int EMPLOYEES = 10_000;
+
+    @Param({"true", "false"})
+    public boolean cacheEnabled;
+
+    private EmployeeService employeeService;
+    private EmployeePatch patch;
+
+    @Setup
+    public void setup() {
+        this.employeeService = BenchmarkSupport.employeeService(BenchmarkSupport.employees(EMPLOYEES), this.cacheEnabled);
+        this.patch = new EmployeePatch("Dilshan", null, null);
+    }
+
+    @Benchmark
+    public Optional<Employee> getEmployeeById() {
+        return this.employeeService.getEmployeeById(randomId());
+    }
+
+    @Benchmark
+    public Optional<Employee> getEmployeeByEmail() {
+        return this.employeeService.getEmployeeByEmail("employee" + randomId() + "@gmail.com");
+    }
+
+    @Benchmark
+    public CursorPage<EmployeeSummary> getEmployees() {
+        return this.employeeService.getEmployees(null, null);
+    }
+
+    @Benchmark
+    public boolean patchEmployee() {
+        return this.employeeService.patchEmployee(randomId(), this.patch);
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, EMPLOYEES + 1);
+    }
+}
@@ -0,0 +1,127 @@
+package com.dilshan.testing.cache;
+
+import com.dilshan.testing.config.EmployeeProperties;
+import com.dilshan.testing.model.Employee;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache in front of the employee lookups by id and email.
+ * <p>
+ * Employees are cached by id. The email cache only maps an email to an id, a hit is checked against
+ * the email of the cached employee, so a stale mapping left behind by an email change is dropped on
+ * read instead of returning the wrong employee. A miss installs a pending future under Caffeine's per-key
+ * compute and the caller loads outside of it, so concurrent readers of the same id wait for that one
+ * load without holding a monitor (a blocking load never pins the carrier of a virtual thread). An
+ * invalidation racing with a load removes the pending entry, the result is not cached, so a writer never
+ * leaves a stale employee behind. Callers always get a copy, mutating it does not change the cached entry.
+ */
+@Component
+@Profile("!reactive")
+public class EmployeeCache implements MeterBinder {
+
+    public static final String BY_ID = "employeesById";
+    public static final String BY_EMAIL = "employeesByEmail";
+
+    private final AsyncCache<Long, Employee> byId;
+    private final Cache<String, Long> idByEmail;
+
+    public EmployeeCache(EmployeeProperties employeeProperties) {
+        EmployeeProperties.Cache properties = employeeProperties.getCache();
+        this.byId = properties.isEnabled() ? newBuilder(properties).buildAsync() : null;
+        this.idByEmail = properties.isEnabled() ? newBuilder(properties).build() : null;
+    }
+
+    public Optional<Employee> getById(Long id, Function<Long, Optional<Employee>> loader) {
+        if (this.byId == null) {
+            return loader.apply(id);
+        }
+        CompletableFuture<Employee> load = new CompletableFuture<>();
+        CompletableFuture<Employee> employee = this.byId.get(id, (key, executor) -> load);
+        if (employee == load) {
+            //Misses are not cached, a future completed with null leaves no entry behind
+            try {
+                load.complete(loader.apply(id).map(EmployeeCache::copy).orElse(null));
+            } catch (RuntimeException e) {
+                load.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return Optional.ofNullable(employee.join()).map(EmployeeCache::copy);
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    public Optional<Employee> getByEmail(String email, Function<String, Optional<Employee>> emailLoader,
+                                         Function<Long, Optional<Employee>> idLoader) {
+        if (this.idByEmail == null) {
+            return emailLoader.apply(email);
+        }
+        Long id = this.idByEmail.getIfPresent(email);
+        if (id != null) {
+            Optional<Employee> employee = this.getById(id, idLoader);
+            if (employee.filter(e -> email.equals(e.getEmail())).isPresent()) {
+                return employee;
+            }
+            this.idByEmail.invalidate(email);
+        }
+        Optional<Employee> employee = emailLoader.apply(email);
+        employee.ifPresent(e -> this.idByEmail.put(email, e.getId()));
+        return employee;
+    }
+
+    public void evict(Employee employee) {
+        this.evict(employee.getId());
+        if (this.idByEmail != null && employee.getEmail() != null) {
+            this.idByEmail.invalidate(employee.getEmail());
+        }
+    }
+
+    public void evict(Long id) {
+        if (this.byId != null && id != null) {
+            this.byId.synchronous().invalidate(id);
+        }
+    }
+
+    /**
+     * Drops every entry, for writes that bypass the service (bulk maintenance, tests seeding the table).
+     */
+    public void clear() {
+        if (this.byId != null) {
+            this.byId.synchronous().invalidateAll();
+            this.idByEmail.invalidateAll();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (this.byId != null) {
+            CaffeineCacheMetrics.monitor(registry, this.byId, BY_ID);
+            CaffeineCacheMetrics.monitor(registry, this.idByEmail, BY_EMAIL);
+        }
+    }
+
+    private static Caffeine<Object, Object> newBuilder(EmployeeProperties.Cache properties) {
+        return Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats();
+    }
+
+    private static Employee copy(Employee employee) {
+        return employee.toBuilder().build();
+    }
+}
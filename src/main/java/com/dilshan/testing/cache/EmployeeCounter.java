@@ -0,0 +1,79 @@
+package com.dilshan.testing.cache;
+
+import com.dilshan.testing.config.EmployeeProperties;
+import com.dilshan.testing.repository.EmployeeRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exact number of employees without a COUNT(*), which InnoDB answers by scanning an index.
+ * <p>
+ * The table is counted once all beans are created and before the web server and the write-behind writer start,
+ * so no write of this instance can commit while the count runs and be counted twice. The EmployeeService write
+ * paths then add the rows they insert and subtract the rows they delete, after commit. The number stays exact
+ * only as long as every write goes through this instance's EmployeeService, which app.employees.count.enabled
+ * declares. Otherwise {@link #isLoaded()} stays false and exact counts are COUNT(*) queries.
+ */
+@Component
+@Profile("!reactive")
+@Slf4j
+public class EmployeeCounter implements SmartInitializingSingleton, MeterBinder {
+
+    private final EmployeeRepository employeeRepository;
+    private final boolean enabled;
+    private final AtomicLong count = new AtomicLong();
+    private volatile boolean loaded;
+
+    public EmployeeCounter(EmployeeRepository employeeRepository, EmployeeProperties employeeProperties) {
+        this.employeeRepository = employeeRepository;
+        this.enabled = employeeProperties.getCount().isEnabled();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        this.load();
+    }
+
+    public void load() {
+        if (!this.enabled) {
+            return;
+        }
+        log.info("Counting employees...");
+        this.count.set(this.employeeRepository.count());
+        this.loaded = true;
+        log.info("Employee counter loaded with {} employees", this.count.get());
+    }
+
+    public boolean isLoaded() {
+        return this.loaded;
+    }
+
+    public long get() {
+        return this.count.get();
+    }
+
+    /**
+     * @param rows rows inserted (positive) or deleted (negative) by a committed write
+     */
+    public void add(long rows) {
+        if (this.loaded) {
+            this.count.addAndGet(rows);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (this.enabled) {
+            Gauge.builder("employees.count", this.count, AtomicLong::get)
+                    .description("Employees counted at startup plus the rows inserted and deleted since")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.dilshan.testing.cache;
+
+import com.dilshan.testing.config.EmployeeProperties;
+import com.dilshan.testing.dto.EmployeeKey;
+import com.dilshan.testing.model.Employee;
+import com.dilshan.testing.repository.EmployeeRepository;
+import com.dilshan.testing.util.BloomFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filters over the ids and emails present in the employees table, so lookups of unknown
+ * keys can be answered without a database round trip.
+ * <p>
+ * The filters are filled by a streaming scan once the application is ready and then kept up to date
+ * by the EmployeeService write paths. Deleted keys stay in the filters and simply fall through to the
+ * database. Until the scan finishes every key is reported as possibly present.
+ */
+@Component
+@Profile("!reactive")
+@Slf4j
+public class EmployeeExistenceFilter implements MeterBinder {
+
+    private final EmployeeRepository employeeRepository;
+    private final BloomFilter ids;
+    private final BloomFilter emails;
+    private volatile boolean loaded;
+
+    public EmployeeExistenceFilter(EmployeeRepository employeeRepository, EmployeeProperties employeeProperties) {
+        EmployeeProperties.ExistenceFilter properties = employeeProperties.getExistenceFilter();
+        this.employeeRepository = employeeRepository;
+        this.ids = properties.isEnabled()
+                ? new BloomFilter(properties.getExpectedInsertions(), properties.getFalsePositiveProbability()) : null;
+        this.emails = properties.isEnabled()
+                ? new BloomFilter(properties.getExpectedInsertions(), properties.getFalsePositiveProbability()) : null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        if (this.ids == null) {
+            return;
+        }
+        log.info("Loading employee existence filter...");
+        long count = 0;
+        //Writes arriving during the scan go into the same filters, nothing is lost when loading finishes
+        try (Stream<EmployeeKey> keys = this.employeeRepository.streamKeys()) {
+            for (EmployeeKey key : (Iterable<EmployeeKey>) keys::iterator) {
+                this.ids.put(key.id());
+                this.emails.put(normalize(key.email()));
+                count++;
+            }
+        }
+        this.loaded = true;
+        log.info("Employee existence filter loaded with {} employees", count);
+    }
+
+    public boolean mightContainId(Long id) {
+        return !this.loaded || this.ids.mightContain(id);
+    }
+
+    public boolean mightContainEmail(String email) {
+        return !this.loaded || email == null || this.emails.mightContain(normalize(email));
+    }
+
+    public void add(Employee employee) {
+        if (this.ids != null) {
+            this.ids.put(employee.getId());
+            this.emails.put(normalize(employee.getEmail()));
+        }
+    }
+
+    /**
+     * The email column compares case-insensitively, so must the filter, or a lookup in another case than the
+     * stored email would be a definite miss for an existing row.
+     */
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (this.ids != null) {
+            bind(registry, "ids", this.ids);
+            bind(registry, "emails", this.emails);
+        }
+    }
+
+    private static void bind(MeterRegistry registry, String name, BloomFilter filter) {
+        Gauge.builder("employees.existence.filter.false.positive.probability", filter, BloomFilter::expectedFalsePositiveProbability)
+                .description("Expected false positive probability at the current fill")
+                .tag("filter", name)
+                .register(registry);
+        Gauge.builder("employees.existence.filter.memory", filter, BloomFilter::memoryBytes)
+                .description("Size of the filter bit array")
+                .baseUnit("bytes")
+                .tag("filter", name)
+                .register(registry);
+    }
+}
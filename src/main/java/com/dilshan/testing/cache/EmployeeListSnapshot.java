@@ -0,0 +1,176 @@
+package com.dilshan.testing.cache;
+
+import com.dilshan.testing.codec.EmployeeMediaTypes;
+import com.dilshan.testing.codec.EmployeeStreams;
+import com.dilshan.testing.config.EmployeeProperties;
+import com.dilshan.testing.dto.EmployeeSummary;
+import com.dilshan.testing.util.EmployeeETags;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoded bodies of GET /api/employees/all, kept as bytes (and gzip compressed bytes) per media type, so a hit
+ * is one buffer write instead of a query, hydrating the rows and serializing them.
+ * <p>
+ * Snapshots are keyed by a table change version that the service bumps after every committed write. A reader
+ * takes the version before it loads the table, so a load racing with a write is filed under the old version
+ * and never served as current. Each format is encoded by the first reader that needs it at a version, concurrent
+ * readers wait for that one load. Writes that bypass this instance's service are picked up after the time to live.
+ */
+@Component
+@Profile("!reactive")
+public class EmployeeListSnapshot {
+
+    /**
+     * Formats of GET /all, the first one is the default.
+     */
+    public static final List<MediaType> MEDIA_TYPES = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR,
+            EmployeeMediaTypes.APPLICATION_SMILE, EmployeeMediaTypes.APPLICATION_PROTOBUF);
+
+    /**
+     * Bodies below Tomcat's default compression threshold are not worth a Content-Encoding.
+     */
+    private static final int MIN_GZIP_SIZE = 2048;
+
+    private final EmployeeStreams employeeStreams;
+    private final boolean enabled;
+    private final long timeToLiveNanos;
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicReference<Generation> generation = new AtomicReference<>(new Generation(-1, 0));
+
+    public EmployeeListSnapshot(EmployeeProperties employeeProperties, EmployeeStreams employeeStreams) {
+        EmployeeProperties.ListSnapshot properties = employeeProperties.getListSnapshot();
+        this.employeeStreams = employeeStreams;
+        this.enabled = properties.isEnabled();
+        this.timeToLiveNanos = properties.getTimeToLive().toNanos();
+    }
+
+    /**
+     * Starts a new table version, called after a write has committed.
+     */
+    public void bumpVersion() {
+        this.version.incrementAndGet();
+    }
+
+    /**
+     * @param mediaType one of {@link #MEDIA_TYPES}
+     * @param loader    reads the whole table, only called on a miss
+     * @return the list encoded as mediaType
+     */
+    public Encoded get(MediaType mediaType, Supplier<List<EmployeeSummary>> loader) {
+        if (!this.enabled) {
+            return this.encode(mediaType, loader.get(), false);
+        }
+        long current = this.version.get();
+        Generation generation = this.generation.updateAndGet(g -> g.version() < current
+                || g.version() == current && System.nanoTime() - g.createdNanos() >= this.timeToLiveNanos ? new Generation(current, System.nanoTime()) : g);
+        if (generation.version() != current) {
+            //A write committed after this reader took the version, its load must not be filed under the newer one
+            return this.encode(mediaType, loader.get(), true);
+        }
+        CompletableFuture<Encoded> load = new CompletableFuture<>();
+        CompletableFuture<Encoded> encoded = generation.formats().putIfAbsent(mediaType, load);
+        if (encoded == null) {
+            try {
+                load.complete(this.encode(mediaType, loader.get(), true));
+            } catch (RuntimeException e) {
+                //A failed load is not cached, the next reader tries again
+                generation.formats().remove(mediaType, load);
+                load.completeExceptionally(e);
+                throw e;
+            }
+            return load.join();
+        }
+        try {
+            return encoded.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * @param acceptEncoding value of the Accept-Encoding header, null when absent
+     * @return whether gzip (or any coding through *) is acceptable, a q of 0 refuses it
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=") && parameter.substring(2).trim().matches("0(\\.0{0,3})?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Encoded encode(MediaType mediaType, List<EmployeeSummary> employees, boolean compress) {
+        try {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            this.employeeStreams.writeSummaries(mediaType, employees, body);
+            byte[] identity = body.toByteArray();
+            return new Encoded(identity, compress && identity.length >= MIN_GZIP_SIZE ? gzip(identity) : null,
+                    EmployeeETags.of(EmployeeETags.of(employees), mediaType));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] identity) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(identity.length / 4);
+        //Compressed once per version and format, the slowest level costs nothing on the hits
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed) {
+            {
+                this.def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(identity);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * @param identity body without Content-Encoding
+     * @param gzip     gzip compressed body, null when it is too small to be worth it or snapshots are disabled
+     * @param eTag     strong entity tag of the list in this format
+     */
+    public record Encoded(byte[] identity, byte[] gzip, String eTag) {
+
+        /**
+         * @return entity tag of the gzip compressed body, a strong tag identifies the bytes on the wire
+         */
+        public String gzipETag() {
+            return this.eTag.substring(0, this.eTag.length() - 1) + "-gzip\"";
+        }
+    }
+
+    private record Generation(long version, long createdNanos, Map<MediaType, CompletableFuture<Encoded>> formats) {
+
+        private Generation(long version, long createdNanos) {
+            this(version, createdNanos, new ConcurrentHashMap<>());
+        }
+    }
+}
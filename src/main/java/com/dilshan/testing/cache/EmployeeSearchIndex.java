@@ -0,0 +1,216 @@
+package com.dilshan.testing.cache;
+
+import com.dilshan.testing.config.EmployeeProperties;
+import com.dilshan.testing.dto.EmployeePatch;
+import com.dilshan.testing.dto.EmployeeSummary;
+import com.dilshan.testing.model.Employee;
+import com.dilshan.testing.repository.EmployeeRepository;
+import com.dilshan.testing.util.PrefixIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory prefix index over the first names, last names and emails of the employees table, answering the
+ * typeahead search without a LIKE query. Keeps the summary of every employee next to the terms, so a search
+ * never touches the database.
+ * <p>
+ * The index is filled by a streaming scan once the application is ready and then kept up to date by the
+ * EmployeeService write paths. Writes arriving during the scan win over the rows it reads: a saved or updated
+ * row is not overwritten, a deleted one is not brought back, and a patch of a row the scan has not reached yet
+ * is read again once it finishes. Until then {@link #isReady()} is false and searches go to the database.
+ */
+@Component
+@Profile("!reactive")
+@Slf4j
+public class EmployeeSearchIndex implements MeterBinder {
+
+    private final EmployeeRepository employeeRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final PrefixIndex terms;
+    private final Map<Long, EmployeeSummary> employees = new ConcurrentHashMap<>();
+    private final Set<Long> deletedWhileLoading = ConcurrentHashMap.newKeySet();
+    private final Set<Long> patchedWhileLoading = ConcurrentHashMap.newKeySet();
+    private volatile boolean loaded;
+
+    public EmployeeSearchIndex(EmployeeRepository employeeRepository, EmployeeProperties employeeProperties,
+                               PlatformTransactionManager transactionManager) {
+        this.employeeRepository = employeeRepository;
+        this.transactionManager = transactionManager;
+        this.terms = employeeProperties.getSearchIndex().isEnabled() ? new PrefixIndex() : null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (this.terms == null) {
+            return;
+        }
+        log.info("Loading employee search index...");
+        TransactionTemplate transaction = new TransactionTemplate(this.transactionManager);
+        transaction.setReadOnly(true);
+        Long count = transaction.execute(status -> {
+            long rows = 0;
+            try (Stream<EmployeeSummary> summaries = this.employeeRepository.streamSummaries()) {
+                for (EmployeeSummary employee : (Iterable<EmployeeSummary>) summaries::iterator) {
+                    this.employees.computeIfAbsent(employee.id(),
+                            id -> this.deletedWhileLoading.contains(id) ? null : this.index(null, employee));
+                    rows++;
+                }
+            }
+            return rows;
+        });
+        //Read outside the scan's transaction, its snapshot predates the patches
+        List<Long> patched = new ArrayList<>(this.patchedWhileLoading);
+        this.patchedWhileLoading.removeAll(patched);
+        for (Employee employee : this.employeeRepository.findAllById(patched)) {
+            this.add(employee);
+        }
+        this.loaded = true;
+        this.deletedWhileLoading.clear();
+        log.info("Employee search index loaded with {} employees", count);
+    }
+
+    /**
+     * @return whether the scan has finished, searches before that would miss employees
+     */
+    public boolean isReady() {
+        return this.loaded;
+    }
+
+    /**
+     * @param prefix case-insensitive prefix of a first name, last name or email
+     * @param limit  maximum number of employees
+     * @return employees with a field starting with prefix, ordered by the smallest matching field and then by id
+     */
+    public List<EmployeeSummary> search(String prefix, int limit) {
+        if (this.terms == null) {
+            return List.of();
+        }
+        long[] ids = this.terms.search(prefix, limit);
+        List<EmployeeSummary> employees = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            //Deleted between the two lookups
+            EmployeeSummary employee = this.employees.get(id);
+            if (employee != null) {
+                employees.add(employee);
+            }
+        }
+        return employees;
+    }
+
+    /**
+     * Orders employees the way {@link #search(String, int)} does, for results that come from the database.
+     *
+     * @param candidates employees matching prefix, an employee may appear more than once
+     * @return the first limit distinct employees by their smallest lower cased field starting with prefix and
+     * then by id, employees the database matched otherwise (through its accent-insensitive collation) are dropped
+     */
+    public static List<EmployeeSummary> rank(String prefix, Collection<EmployeeSummary> candidates, int limit) {
+        String lowerPrefix = prefix.toLowerCase(Locale.ROOT);
+        Map<Long, String> termById = new HashMap<>();
+        Map<Long, EmployeeSummary> byId = new HashMap<>();
+        for (EmployeeSummary employee : candidates) {
+            String term = null;
+            for (String field : terms(employee)) {
+                String lower = field == null ? null : field.toLowerCase(Locale.ROOT);
+                if (lower != null && lower.startsWith(lowerPrefix) && (term == null || lower.compareTo(term) < 0)) {
+                    term = lower;
+                }
+            }
+            if (term != null) {
+                termById.put(employee.id(), term);
+                byId.put(employee.id(), employee);
+            }
+        }
+        return byId.values().stream()
+                .sorted(Comparator.comparing((EmployeeSummary employee) -> termById.get(employee.id()))
+                        .thenComparing(EmployeeSummary::id))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Indexes a saved or updated employee, replacing the terms of its previous state.
+     */
+    public void add(Employee employee) {
+        if (this.terms != null) {
+            EmployeeSummary summary = new EmployeeSummary(employee.getId(), employee.getFirstName(),
+                    employee.getLastName(), employee.getEmail());
+            this.employees.compute(summary.id(), (id, old) -> this.index(old, summary));
+        }
+    }
+
+    public void patch(Long id, EmployeePatch patch) {
+        if (this.terms == null) {
+            return;
+        }
+        EmployeeSummary patched = this.employees.computeIfPresent(id, (key, old) -> this.index(old, new EmployeeSummary(id,
+                Objects.requireNonNullElse(patch.firstName(), old.firstName()),
+                Objects.requireNonNullElse(patch.lastName(), old.lastName()),
+                Objects.requireNonNullElse(patch.email(), old.email()))));
+        if (patched == null && !this.loaded) {
+            this.patchedWhileLoading.add(id);
+        }
+    }
+
+    public void remove(Long id) {
+        if (this.terms == null) {
+            return;
+        }
+        if (!this.loaded) {
+            //Before the removal, so the scan cannot put the row back once it is gone
+            this.deletedWhileLoading.add(id);
+        }
+        this.employees.computeIfPresent(id, (key, old) -> {
+            this.terms.update(id, terms(old), List.of());
+            return null;
+        });
+    }
+
+    /**
+     * Called inside a compute of employees, which serializes the updates of one id.
+     *
+     * @param old      indexed summary of the same id, null when it was not indexed yet
+     * @param employee summary to index
+     */
+    private EmployeeSummary index(EmployeeSummary old, EmployeeSummary employee) {
+        this.terms.update(employee.id(), old == null ? List.of() : terms(old), terms(employee));
+        return employee;
+    }
+
+    private static List<String> terms(EmployeeSummary employee) {
+        return Arrays.asList(employee.firstName(), employee.lastName(), employee.email());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (this.terms != null) {
+            Gauge.builder("employees.search.index.terms", this.terms, PrefixIndex::termCount)
+                    .description("Distinct lower cased first names, last names and emails in the index")
+                    .register(registry);
+            Gauge.builder("employees.search.index.employees", this.employees, Map::size)
+                    .description("Employees in the index")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.dilshan.testing.codec;
+
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary media types of the employee API next to application/json. CBOR and Smile carry the same documents
+ * as JSON, Protobuf the messages of src/main/proto/employee.proto.
+ */
+public final class EmployeeMediaTypes {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf(APPLICATION_SMILE_VALUE);
+
+    /**
+     * Concatenated CBOR items (RFC 8742), the CBOR counterpart of NDJSON for the export stream.
+     */
+    public static final String APPLICATION_CBOR_SEQ_VALUE = "application/cbor-seq";
+    public static final MediaType APPLICATION_CBOR_SEQ = MediaType.valueOf(APPLICATION_CBOR_SEQ_VALUE);
+
+    public static final String APPLICATION_PROTOBUF_VALUE = "application/x-protobuf";
+    public static final MediaType APPLICATION_PROTOBUF = MediaType.valueOf(APPLICATION_PROTOBUF_VALUE);
+
+    /**
+     * Name of application/x-protobuf registered with IANA, read and written as well.
+     */
+    public static final String APPLICATION_PROTOBUF_REGISTERED_VALUE = "application/protobuf";
+    public static final MediaType APPLICATION_PROTOBUF_REGISTERED = MediaType.valueOf(APPLICATION_PROTOBUF_REGISTERED_VALUE);
+
+    /**
+     * Formats of the employee, page and list responses written by the message converters, the first one is the
+     * default.
+     */
+    public static final List<MediaType> RESPONSE_MEDIA_TYPES = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR,
+            APPLICATION_SMILE, APPLICATION_PROTOBUF, APPLICATION_PROTOBUF_REGISTERED);
+
+    private EmployeeMediaTypes() {
+    }
+
+    /**
+     * @param accept value of the Accept header, null for any
+     * @see #negotiate(List, List)
+     */
+    public static MediaType negotiate(String accept, List<MediaType> offered) {
+        return negotiate(StringUtils.hasText(accept) ? MediaType.parseMediaTypes(accept) : List.of(), offered);
+    }
+
+    /**
+     * @param accepted media types of the Accept header, empty for any
+     * @param offered  media types the route can write, the first one is the default
+     * @return the offered media type the client prefers, by quality and then specificity, the default when
+     * nothing offered is acceptable (the caller has already rejected such requests or answers with its default)
+     */
+    public static MediaType negotiate(List<MediaType> accepted, List<MediaType> offered) {
+        List<MediaType> acceptable = new ArrayList<>(accepted.isEmpty() ? List.of(MediaType.ALL) : accepted);
+        MimeTypeUtils.sortBySpecificity(acceptable);
+        for (MediaType mediaType : acceptable) {
+            for (MediaType candidate : offered) {
+                if (mediaType.getQualityValue() > 0 && mediaType.isCompatibleWith(candidate)) {
+                    return candidate;
+                }
+            }
+        }
+        return offered.get(0);
+    }
+}
@@ -0,0 +1,233 @@
+package com.dilshan.testing.codec;
+
+import com.dilshan.testing.dto.BatchCreateResult;
+import com.dilshan.testing.dto.CursorPage;
+import com.dilshan.testing.dto.EmployeePatch;
+import com.dilshan.testing.dto.EmployeeSummary;
+import com.dilshan.testing.model.Employee;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Protobuf wire encoding of the employee payloads described by src/main/proto/employee.proto, written field by
+ * field with protobuf-java's coded streams straight from the entity and the records, so no generated message
+ * classes are built and copied on the way out.
+ * <p>
+ * Null fields are left out, an absent field decodes to null. Unknown fields are skipped, so clients can run
+ * on a newer schema.
+ */
+public final class EmployeeProtobuf {
+
+    private static final int ID = 1 << 3 | WireFormat.WIRETYPE_VARINT;
+    private static final int FIRST_NAME = 2 << 3 | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+    private static final int LAST_NAME = 3 << 3 | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+    private static final int EMAIL = 4 << 3 | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+    private static final int VERSION = 5 << 3 | WireFormat.WIRETYPE_VARINT;
+
+    private static final int PATCH_FIRST_NAME = 1 << 3 | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+    private static final int PATCH_LAST_NAME = 2 << 3 | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+    private static final int PATCH_EMAIL = 3 << 3 | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+
+    private static final int SUMMARIES = 1 << 3 | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+    private static final int NEXT_CURSOR = 2 << 3 | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+
+    private EmployeeProtobuf() {
+    }
+
+    public static void writeEmployee(Employee employee, CodedOutputStream out) throws IOException {
+        if (employee.getId() != null) {
+            out.writeInt64(1, employee.getId());
+        }
+        writeString(out, 2, employee.getFirstName());
+        writeString(out, 3, employee.getLastName());
+        writeString(out, 4, employee.getEmail());
+        if (employee.getVersion() != 0) {
+            out.writeInt64(5, employee.getVersion());
+        }
+    }
+
+    /**
+     * Employee prefixed with its varint length, one element of the /export and /batch streams.
+     */
+    public static void writeDelimitedEmployee(Employee employee, CodedOutputStream out) throws IOException {
+        out.writeUInt32NoTag(employeeSize(employee));
+        writeEmployee(employee, out);
+    }
+
+    public static void writeSummaries(List<EmployeeSummary> employees, CodedOutputStream out) throws IOException {
+        for (EmployeeSummary employee : employees) {
+            writeSummary(employee, out);
+        }
+    }
+
+    /**
+     * Writes one element of the repeated field 1 of EmployeeSummaryList and EmployeeSummaryPage, a list is the
+     * concatenation of its elements.
+     */
+    public static void writeSummary(EmployeeSummary employee, CodedOutputStream out) throws IOException {
+        out.writeTag(1, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeUInt32NoTag(summarySize(employee));
+        if (employee.id() != null) {
+            out.writeInt64(1, employee.id());
+        }
+        writeString(out, 2, employee.firstName());
+        writeString(out, 3, employee.lastName());
+        writeString(out, 4, employee.email());
+    }
+
+    public static void writePage(CursorPage<EmployeeSummary> page, CodedOutputStream out) throws IOException {
+        writeSummaries(page.content(), out);
+        writeString(out, 2, page.nextCursor());
+    }
+
+    public static void writeBatchCreateResult(BatchCreateResult result, CodedOutputStream out) throws IOException {
+        if (result.created() != 0) {
+            out.writeInt32(1, result.created());
+        }
+    }
+
+    public static Employee readEmployee(CodedInputStream in) throws IOException {
+        Employee employee = new Employee();
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (tag) {
+                case ID -> employee.setId(in.readInt64());
+                case FIRST_NAME -> employee.setFirstName(in.readStringRequireUtf8());
+                case LAST_NAME -> employee.setLastName(in.readStringRequireUtf8());
+                case EMAIL -> employee.setEmail(in.readStringRequireUtf8());
+                case VERSION -> employee.setVersion(in.readInt64());
+                default -> in.skipField(tag);
+            }
+        }
+        return employee;
+    }
+
+    /**
+     * @param in stream of length-prefixed Employee messages
+     * @return Iterator reading one employee per call to next, an IOException is rethrown as UncheckedIOException
+     */
+    public static Iterator<Employee> readDelimitedEmployees(InputStream in) {
+        CodedInputStream input = CodedInputStream.newInstance(in);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                try {
+                    return !input.isAtEnd();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public Employee next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    int limit = input.pushLimit(input.readRawVarint32());
+                    Employee employee = readEmployee(input);
+                    input.popLimit(limit);
+                    //The counter guards a single message, not the whole stream
+                    input.resetSizeCounter();
+                    return employee;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    public static EmployeePatch readPatch(CodedInputStream in) throws IOException {
+        String firstName = null;
+        String lastName = null;
+        String email = null;
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (tag) {
+                case PATCH_FIRST_NAME -> firstName = in.readStringRequireUtf8();
+                case PATCH_LAST_NAME -> lastName = in.readStringRequireUtf8();
+                case PATCH_EMAIL -> email = in.readStringRequireUtf8();
+                default -> in.skipField(tag);
+            }
+        }
+        return new EmployeePatch(firstName, lastName, email);
+    }
+
+    /**
+     * @param in EmployeeSummaryList or EmployeeSummaryPage message
+     */
+    public static List<EmployeeSummary> readSummaries(CodedInputStream in) throws IOException {
+        return readPage(in).content();
+    }
+
+    public static CursorPage<EmployeeSummary> readPage(CodedInputStream in) throws IOException {
+        List<EmployeeSummary> content = new ArrayList<>();
+        String nextCursor = null;
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (tag) {
+                case SUMMARIES -> {
+                    int limit = in.pushLimit(in.readRawVarint32());
+                    content.add(readSummary(in));
+                    in.popLimit(limit);
+                }
+                case NEXT_CURSOR -> nextCursor = in.readStringRequireUtf8();
+                default -> in.skipField(tag);
+            }
+        }
+        return new CursorPage<>(content, nextCursor);
+    }
+
+    private static EmployeeSummary readSummary(CodedInputStream in) throws IOException {
+        Long id = null;
+        String firstName = null;
+        String lastName = null;
+        String email = null;
+        for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+            switch (tag) {
+                case ID -> id = in.readInt64();
+                case FIRST_NAME -> firstName = in.readStringRequireUtf8();
+                case LAST_NAME -> lastName = in.readStringRequireUtf8();
+                case EMAIL -> email = in.readStringRequireUtf8();
+                default -> in.skipField(tag);
+            }
+        }
+        return new EmployeeSummary(id, firstName, lastName, email);
+    }
+
+    private static int employeeSize(Employee employee) {
+        int size = stringSize(2, employee.getFirstName()) + stringSize(3, employee.getLastName())
+                + stringSize(4, employee.getEmail());
+        if (employee.getId() != null) {
+            size += CodedOutputStream.computeInt64Size(1, employee.getId());
+        }
+        if (employee.getVersion() != 0) {
+            size += CodedOutputStream.computeInt64Size(5, employee.getVersion());
+        }
+        return size;
+    }
+
+    private static int summarySize(EmployeeSummary employee) {
+        int size = stringSize(2, employee.firstName()) + stringSize(3, employee.lastName()) + stringSize(4, employee.email());
+        if (employee.id() != null) {
+            size += CodedOutputStream.computeInt64Size(1, employee.id());
+        }
+        return size;
+    }
+
+    private static void writeString(CodedOutputStream out, int field, String value) throws IOException {
+        if (value != null) {
+            out.writeString(field, value);
+        }
+    }
+
+    private static int stringSize(int field, String value) {
+        return value == null ? 0 : CodedOutputStream.computeStringSize(field, value);
+    }
+}
@@ -0,0 +1,93 @@
+package com.dilshan.testing.codec;
+
+import com.dilshan.testing.dto.BatchCreateResult;
+import com.dilshan.testing.dto.CursorPage;
+import com.dilshan.testing.dto.EmployeePatch;
+import com.dilshan.testing.dto.EmployeeSummary;
+import com.dilshan.testing.model.Employee;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Reads and writes the employee payloads as application/x-protobuf with {@link EmployeeProtobuf}. Lists and
+ * pages are only written when their element type is {@link EmployeeSummary}, anything else (a ProblemDetail
+ * among others) is left to the JSON converter.
+ */
+public class EmployeeProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public EmployeeProtobufHttpMessageConverter() {
+        super(EmployeeMediaTypes.APPLICATION_PROTOBUF, EmployeeMediaTypes.APPLICATION_PROTOBUF_REGISTERED);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Employee.class == clazz || EmployeePatch.class == clazz || BatchCreateResult.class == clazz
+                || CursorPage.class == clazz || List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return (Employee.class == clazz || EmployeePatch.class == clazz) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return type instanceof Class<?> clazz && canRead(clazz, mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        ResolvableType resolved = type != null ? ResolvableType.forType(type) : ResolvableType.forClass(clazz);
+        Class<?> raw = resolved.toClass();
+        if (Employee.class == raw || BatchCreateResult.class == raw) {
+            return true;
+        }
+        return (CursorPage.class == raw || List.class.isAssignableFrom(raw))
+                && EmployeeSummary.class == resolved.getGeneric(0).resolve();
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return readInternal((Class<?>) type, inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        CodedInputStream in = CodedInputStream.newInstance(inputMessage.getBody());
+        try {
+            return Employee.class == clazz ? EmployeeProtobuf.readEmployee(in) : EmployeeProtobuf.readPatch(in);
+        } catch (InvalidProtocolBufferException e) {
+            throw new HttpMessageNotReadableException("Malformed protobuf message", e, inputMessage);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        CodedOutputStream out = CodedOutputStream.newInstance(outputMessage.getBody());
+        if (value instanceof Employee employee) {
+            EmployeeProtobuf.writeEmployee(employee, out);
+        } else if (value instanceof BatchCreateResult result) {
+            EmployeeProtobuf.writeBatchCreateResult(result, out);
+        } else if (value instanceof CursorPage<?> page) {
+            EmployeeProtobuf.writePage((CursorPage<EmployeeSummary>) page, out);
+        } else {
+            EmployeeProtobuf.writeSummaries((List<EmployeeSummary>) value, out);
+        }
+        out.flush();
+    }
+}
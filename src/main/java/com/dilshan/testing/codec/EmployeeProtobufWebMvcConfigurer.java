@@ -0,0 +1,23 @@
+package com.dilshan.testing.codec;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Adds application/x-protobuf to the servlet API. CBOR and Smile need no registration, Spring MVC adds its
+ * Jackson CBOR and Smile converters when their data formats are on the classpath.
+ */
+@Configuration
+@Profile("!reactive")
+public class EmployeeProtobufWebMvcConfigurer implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        //Appended after the JSON converter, so Accept: */* and a missing Accept keep getting JSON
+        converters.add(new EmployeeProtobufHttpMessageConverter());
+    }
+}
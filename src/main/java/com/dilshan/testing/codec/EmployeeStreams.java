@@ -0,0 +1,138 @@
+package com.dilshan.testing.codec;
+
+import com.dilshan.testing.dto.EmployeeSummary;
+import com.dilshan.testing.model.Employee;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.protobuf.CodedOutputStream;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Element by element readers and writers of the employee streams (POST /batch, GET /export), which bypass the
+ * message converters so nothing is collected in memory. JSON is read as an array and written as NDJSON, CBOR
+ * and Smile carry the same documents, Protobuf a sequence of length-prefixed Employee messages. Also encodes
+ * the summaries of GET /all for the snapshots of {@link com.dilshan.testing.cache.EmployeeListSnapshot}.
+ */
+@Component
+@Profile("!reactive")
+public class EmployeeStreams {
+
+    /**
+     * Formats of GET /export, the first one is the default for Accept: *&#47;*.
+     */
+    public static final List<MediaType> EXPORT_MEDIA_TYPES = List.of(MediaType.APPLICATION_NDJSON,
+            EmployeeMediaTypes.APPLICATION_CBOR_SEQ, EmployeeMediaTypes.APPLICATION_SMILE, EmployeeMediaTypes.APPLICATION_PROTOBUF);
+
+    private static final TypeReference<List<EmployeeSummary>> SUMMARY_LIST = new TypeReference<>() {
+    };
+
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper cborMapper;
+    private final ObjectMapper smileMapper;
+
+    public EmployeeStreams(ObjectMapper objectMapper) {
+        this.jsonMapper = objectMapper;
+        //Copies keep the modules and features Spring Boot configured on the JSON mapper
+        this.cborMapper = objectMapper.copyWith(new CBORFactory());
+        this.smileMapper = objectMapper.copyWith(new SmileFactory());
+    }
+
+    /**
+     * @return Iterator decoding one employee per call to next, parse errors surface as a JsonProcessingException
+     * or as an UncheckedIOException caused by an InvalidProtocolBufferException
+     */
+    public Iterator<Employee> read(MediaType contentType, InputStream body) throws IOException {
+        if (EmployeeMediaTypes.APPLICATION_PROTOBUF.isCompatibleWith(contentType)) {
+            return EmployeeProtobuf.readDelimitedEmployees(body);
+        }
+        return mapper(contentType).readerFor(Employee.class).readValues(body);
+    }
+
+    /**
+     * Writes the summaries as one document, the body the message converters would write for the media type.
+     */
+    public void writeSummaries(MediaType mediaType, List<EmployeeSummary> employees, OutputStream body) throws IOException {
+        if (EmployeeMediaTypes.APPLICATION_PROTOBUF.isCompatibleWith(mediaType)) {
+            CodedOutputStream out = CodedOutputStream.newInstance(body);
+            EmployeeProtobuf.writeSummaries(employees, out);
+            out.flush();
+            return;
+        }
+        mapper(mediaType).writerFor(SUMMARY_LIST).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValue(body, employees);
+    }
+
+    public Writer writer(MediaType mediaType, OutputStream body) throws IOException {
+        if (EmployeeMediaTypes.APPLICATION_PROTOBUF.isCompatibleWith(mediaType)) {
+            CodedOutputStream out = CodedOutputStream.newInstance(body);
+            return new Writer() {
+                @Override
+                public void accept(Employee employee) {
+                    try {
+                        EmployeeProtobuf.writeDelimitedEmployee(employee, out);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+
+                @Override
+                public void close() throws IOException {
+                    out.flush();
+                }
+            };
+        }
+        JsonGenerator generator = mapper(mediaType).createGenerator(body);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        boolean lineDelimited = MediaType.APPLICATION_NDJSON.isCompatibleWith(mediaType);
+        if (lineDelimited) {
+            generator.setRootValueSeparator(null);
+        }
+        return new Writer() {
+            @Override
+            public void accept(Employee employee) {
+                try {
+                    generator.writeObject(employee);
+                    if (lineDelimited) {
+                        generator.writeRaw('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                generator.close();
+            }
+        };
+    }
+
+    private ObjectMapper mapper(MediaType mediaType) {
+        if (MediaType.APPLICATION_CBOR.isCompatibleWith(mediaType) || EmployeeMediaTypes.APPLICATION_CBOR_SEQ.isCompatibleWith(mediaType)) {
+            return this.cborMapper;
+        }
+        if (EmployeeMediaTypes.APPLICATION_SMILE.isCompatibleWith(mediaType)) {
+            return this.smileMapper;
+        }
+        return this.jsonMapper;
+    }
+
+    /**
+     * Writes employees as they are accepted, closing flushes what is buffered but leaves the body open.
+     */
+    public interface Writer extends Consumer<Employee>, Closeable {
+    }
+}
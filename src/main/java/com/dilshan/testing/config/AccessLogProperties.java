@@ -0,0 +1,30 @@
+package com.dilshan.testing.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.access-log")
+@Getter
+@Setter
+public class AccessLogProperties {
+
+    /**
+     * Whether requests are written to the access logger at all.
+     */
+    private boolean enabled = true;
+    /**
+     * Fraction of ordinary requests that are logged, between 0 and 1.
+     */
+    private double sampleRate = 0.01;
+    /**
+     * Requests slower than this are always logged, whatever the sample rate.
+     */
+    private Duration slowThreshold = Duration.ofMillis(500);
+    /**
+     * Capacity of the asynchronous access log queue, read by logback-spring.xml, lines are dropped when it is full.
+     */
+    private int queueSize = 8192;
+}
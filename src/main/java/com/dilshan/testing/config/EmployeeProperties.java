@@ -0,0 +1,163 @@
+package com.dilshan.testing.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.employees")
+@Getter
+@Setter
+public class EmployeeProperties {
+
+    private final Page page = new Page();
+    private final Batch batch = new Batch();
+    private final Query query = new Query();
+    private final Cache cache = new Cache();
+    private final ListSnapshot listSnapshot = new ListSnapshot();
+    private final ExistenceFilter existenceFilter = new ExistenceFilter();
+    private final SearchIndex searchIndex = new SearchIndex();
+    private final Count count = new Count();
+    private final WriteBehind writeBehind = new WriteBehind();
+
+    @Getter
+    @Setter
+    public static class Page {
+        /**
+         * Page size used when the client does not ask for one.
+         */
+        private int defaultSize = 50;
+        /**
+         * Hard cap on the page size, larger requests are clamped to it.
+         */
+        private int maxSize = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class Batch {
+        /**
+         * Number of INSERT statements sent to the driver in one JDBC batch.
+         */
+        private int jdbcBatchSize = 500;
+        /**
+         * Number of rows committed per transaction.
+         */
+        private int chunkSize = 5000;
+    }
+
+    @Getter
+    @Setter
+    public static class Query {
+        /**
+         * Time after which a statement of GET /api/employees/query is cancelled.
+         */
+        private Duration timeout = Duration.ofSeconds(2);
+    }
+
+    @Getter
+    @Setter
+    public static class Cache {
+        /**
+         * Whether lookups by id and email are served from the in-process cache.
+         */
+        private boolean enabled = true;
+        /**
+         * Maximum number of employees kept, least recently used entries are evicted first.
+         */
+        private long maximumSize = 100_000;
+        /**
+         * Time after which an entry is evicted even if it was never invalidated.
+         */
+        private Duration timeToLive = Duration.ofMinutes(10);
+    }
+
+    @Getter
+    @Setter
+    public static class ListSnapshot {
+        /**
+         * Whether GET /api/employees/all is served from encoded and compressed bytes kept per table version.
+         */
+        private boolean enabled = true;
+        /**
+         * Time after which a snapshot is rebuilt even if no write went through this instance.
+         */
+        private Duration timeToLive = Duration.ofMinutes(1);
+    }
+
+    @Getter
+    @Setter
+    public static class ExistenceFilter {
+        /**
+         * Whether lookups by id and email consult the in-memory Bloom filters before the database. Only
+         * safe when every write goes through this instance's EmployeeService, a row inserted elsewhere is
+         * reported as absent until the next restart.
+         */
+        private boolean enabled = false;
+        /**
+         * Number of employees the filters are sized for.
+         */
+        private long expectedInsertions = 10_000_000;
+        /**
+         * False positive probability at the expected number of insertions.
+         */
+        private double falsePositiveProbability = 0.01;
+    }
+
+    @Getter
+    @Setter
+    public static class SearchIndex {
+        /**
+         * Whether GET /api/employees/search/prefix is answered from an in-memory prefix index over first names,
+         * last names and emails instead of a LIKE query. Only safe when every write goes through this instance's
+         * EmployeeService, a row written elsewhere is missing or stale in the index until the next restart.
+         */
+        private boolean enabled = false;
+    }
+
+    @Getter
+    @Setter
+    public static class Count {
+        /**
+         * Whether exact counts come from a counter loaded at startup and kept up to date by EmployeeService
+         * instead of a COUNT(*). Only safe when every write goes through this instance's EmployeeService, a row
+         * written elsewhere makes the count wrong until the next restart.
+         */
+        private boolean enabled = false;
+    }
+
+    @Getter
+    @Setter
+    public static class WriteBehind {
+        /**
+         * Whether POST /api/employees with Prefer: respond-async queues the employee and answers 202 Accepted.
+         * Queued employees are only kept in memory, a crash loses the ones not written yet.
+         */
+        private boolean enabled = false;
+        /**
+         * Maximum number of queued employees, submissions are answered with 503 while the queue is full.
+         */
+        private int queueCapacity = 10_000;
+        /**
+         * Maximum number of employees written with one existence query and one batched INSERT.
+         */
+        private int batchSize = 500;
+        /**
+         * Time the writer waits for more submissions to fill a batch, the added latency of a lone submission.
+         */
+        private Duration maxDelay = Duration.ofMillis(20);
+        /**
+         * Maximum number of submission outcomes kept for the status endpoint.
+         */
+        private long statusMaximumSize = 100_000;
+        /**
+         * Time after which the outcome of a submission is no longer reported.
+         */
+        private Duration statusTimeToLive = Duration.ofMinutes(10);
+        /**
+         * Time the shutdown waits for the queue to be written.
+         */
+        private Duration shutdownTimeout = Duration.ofSeconds(30);
+    }
+}
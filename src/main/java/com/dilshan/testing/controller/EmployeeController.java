@@ -1,61 +1,289 @@
 package com.dilshan.testing.controller;
 
+import com.dilshan.testing.cache.EmployeeListSnapshot;
+import com.dilshan.testing.codec.EmployeeMediaTypes;
+import com.dilshan.testing.codec.EmployeeStreams;
+import com.dilshan.testing.dto.BatchCreateResult;
+import com.dilshan.testing.dto.CursorPage;
+import com.dilshan.testing.dto.EmployeeCount;
+import com.dilshan.testing.dto.EmployeePatch;
+import com.dilshan.testing.dto.EmployeeSubmission;
+import com.dilshan.testing.dto.EmployeeSummary;
+import com.dilshan.testing.exception.BatchCreateFailed;
+import com.dilshan.testing.exception.InvalidRequest;
+import com.dilshan.testing.exception.PreconditionFailed;
 import com.dilshan.testing.model.Employee;
 import com.dilshan.testing.service.EmployeeService;
+import com.dilshan.testing.service.impl.EmployeeWriteBehind;
+import com.dilshan.testing.util.EmployeeETags;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.protobuf.InvalidProtocolBufferException;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/employees")
 @RequiredArgsConstructor
 @Slf4j
 public class EmployeeController {
 
+    static final String TOTAL_COUNT = "X-Total-Count";
+    static final String TOTAL_COUNT_ACCURACY = "X-Total-Count-Accuracy";
+    static final String PREFER = "Prefer";
+    static final String PREFERENCE_APPLIED = "Preference-Applied";
+    static final String RESPOND_ASYNC = "respond-async";
+
     private final EmployeeService employeeService;
+    private final EmployeeStreams employeeStreams;
+    private final EmployeeListSnapshot listSnapshot;
+    private final EmployeeWriteBehind writeBehind;
 
+    /**
+     * @param prefer respond-async queues the employee when the write-behind is enabled, answered with 202 Accepted
+     *               and the submission to poll, otherwise the employee is saved before the response
+     */
     @PostMapping
-    public ResponseEntity<Employee> createEmployee(@RequestBody Employee employee) {
-        log.info("Create Employee: {}", employee);
+    public ResponseEntity<?> createEmployee(@RequestBody Employee employee,
+                                            @RequestHeader(value = PREFER, required = false) String prefer) {
+        log.debug("Create Employee: {}", employee);
+        if (this.writeBehind.isEnabled() && prefersAsync(prefer)) {
+            return this.writeBehind.submit(employee)
+                    .<ResponseEntity<?>>map(submission -> ResponseEntity.accepted()
+                            .location(URI.create("/api/employees/submissions/" + submission.id()))
+                            .header(PREFERENCE_APPLIED, RESPOND_ASYNC)
+                            .body(submission))
+                    //The queue is full, the writer is behind the burst
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build());
+        }
         return ResponseEntity.status(HttpStatus.CREATED).body(this.employeeService.saveEmployee(employee));
     }
 
-    @GetMapping("/all")
-    public ResponseEntity<List<Employee>> getAllEmpoloyees() {
-        log.info("Get all employees...");
-        return ResponseEntity.status(HttpStatus.OK).body(this.employeeService.getAllEmployees());
+    @GetMapping("/submissions/{id}")
+    public ResponseEntity<EmployeeSubmission> getSubmission(@PathVariable("id") String id) {
+        log.debug("Get employee submission: {}", id);
+        return this.writeBehind.getSubmission(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            EmployeeMediaTypes.APPLICATION_SMILE_VALUE, EmployeeMediaTypes.APPLICATION_PROTOBUF_VALUE})
+    public ResponseEntity<BatchCreateResult> createEmployees(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                             InputStream body) throws IOException {
+        log.debug("Create Employees in batch...");
+        //The array (a delimited message stream for protobuf) is read element by element while the chunks are inserted
+        try {
+            Iterator<Employee> employees = this.employeeStreams.read(contentType, body);
+            int created = this.employeeService.saveEmployees(employees);
+            return ResponseEntity.status(HttpStatus.CREATED).body(new BatchCreateResult(created));
+        } catch (JsonProcessingException e) {
+            throw new InvalidRequest("Malformed employee array", e);
+        } catch (BatchCreateFailed e) {
+            //The iterators wrap parse errors hit in the middle of the stream, the chunks before stay committed
+            if (isMalformed(e.getCause())) {
+                throw new BatchCreateFailed(e.getCreated(), new InvalidRequest("Malformed employee array", e.getCause()));
+            }
+            throw e;
+        }
+    }
+
+    @GetMapping(value = "/all", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            EmployeeMediaTypes.APPLICATION_SMILE_VALUE, EmployeeMediaTypes.APPLICATION_PROTOBUF_VALUE})
+    public ResponseEntity<byte[]> getAllEmpoloyees(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                   @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        log.debug("Get all employees...");
+        MediaType mediaType = EmployeeMediaTypes.negotiate(accept, EmployeeListSnapshot.MEDIA_TYPES);
+        //Encoded once per table version, a hit writes the cached bytes and a matching If-None-Match writes nothing
+        EmployeeListSnapshot.Encoded employees = this.listSnapshot.get(mediaType, this.employeeService::getEmployeeSummaries);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(mediaType)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (employees.gzip() != null && EmployeeListSnapshot.acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").eTag(employees.gzipETag()).body(employees.gzip());
+        }
+        return response.eTag(employees.eTag()).body(employees.identity());
+    }
+
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, EmployeeMediaTypes.APPLICATION_CBOR_SEQ_VALUE,
+            EmployeeMediaTypes.APPLICATION_SMILE_VALUE, EmployeeMediaTypes.APPLICATION_PROTOBUF_VALUE})
+    public void exportEmployees(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                HttpServletResponse response) throws IOException {
+        log.debug("Export all employees...");
+        MediaType mediaType = EmployeeMediaTypes.negotiate(accept, EmployeeStreams.EXPORT_MEDIA_TYPES);
+        response.setContentType(mediaType.toString());
+        //Each row is written as soon as it is read, nothing is collected in memory
+        try (EmployeeStreams.Writer writer = this.employeeStreams.writer(mediaType, response.getOutputStream())) {
+            this.employeeService.exportEmployees(writer);
+        }
+    }
+
+    /**
+     * @param count exact or estimated, adds the number of employees as X-Total-Count and how it was obtained as
+     *              X-Total-Count-Accuracy
+     */
+    @GetMapping(value = "/page", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, EmployeeMediaTypes.APPLICATION_SMILE_VALUE,
+            EmployeeMediaTypes.APPLICATION_PROTOBUF_VALUE, EmployeeMediaTypes.APPLICATION_PROTOBUF_REGISTERED_VALUE})
+    public ResponseEntity<CursorPage<EmployeeSummary>> getEmployees(@RequestParam(value = "cursor", required = false) String cursor,
+                                                             @RequestParam(value = "size", required = false) Integer size,
+                                                             @RequestParam(value = "count", required = false) String count,
+                                                             @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        log.debug("Get employees page: cursor {} size {}", cursor, size);
+        CursorPage<EmployeeSummary> page = this.employeeService.getEmployees(cursor, size);
+        ResponseEntity.BodyBuilder response = ok(EmployeeETags.of(page), accept);
+        if (count != null) {
+            EmployeeCount total = this.employeeService.countEmployees(EmployeeCount.Accuracy.parse(count));
+            response.header(TOTAL_COUNT, String.valueOf(total.count()))
+                    .header(TOTAL_COUNT_ACCURACY, total.accuracy().name().toLowerCase(Locale.ROOT));
+        }
+        return response.body(page);
+    }
+
+    @GetMapping("/count")
+    public EmployeeCount countEmployees(@RequestParam(value = "accuracy", defaultValue = "exact") String accuracy) {
+        log.debug("Count employees: {}", accuracy);
+        return this.employeeService.countEmployees(EmployeeCount.Accuracy.parse(accuracy));
+    }
+
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, EmployeeMediaTypes.APPLICATION_SMILE_VALUE,
+            EmployeeMediaTypes.APPLICATION_PROTOBUF_VALUE, EmployeeMediaTypes.APPLICATION_PROTOBUF_REGISTERED_VALUE})
+    public ResponseEntity<CursorPage<EmployeeSummary>> searchEmployees(@RequestParam("firstName") String firstName,
+                                                                       @RequestParam("lastName") String lastName,
+                                                                       @RequestParam(value = "cursor", required = false) String cursor,
+                                                                       @RequestParam(value = "size", required = false) Integer size,
+                                                                       @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        log.debug("Search employees: firstName {} lastName {}", firstName, lastName);
+        CursorPage<EmployeeSummary> page = this.employeeService.searchEmployees(firstName, lastName, cursor, size);
+        return ok(EmployeeETags.of(page), accept).body(page);
+    }
+
+    @GetMapping(value = "/search/prefix", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, EmployeeMediaTypes.APPLICATION_SMILE_VALUE,
+            EmployeeMediaTypes.APPLICATION_PROTOBUF_VALUE, EmployeeMediaTypes.APPLICATION_PROTOBUF_REGISTERED_VALUE})
+    public ResponseEntity<List<EmployeeSummary>> searchEmployeesByPrefix(@RequestParam("q") String prefix,
+                                                                         @RequestParam(value = "size", required = false) Integer size,
+                                                                         @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        log.debug("Search employees by prefix: {}", prefix);
+        List<EmployeeSummary> employees = this.employeeService.searchEmployeesByPrefix(prefix, size);
+        return ok(EmployeeETags.of(employees), accept).body(employees);
     }
 
-    @GetMapping("/id/{id}")
-    public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") Long id) {
-        log.info("Get employee by id: {}", id);
-        return this.employeeService.getEmployeeById(id).map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    /**
+     * Filters are field:operator:value (operators eq, prefix, gt, ge, lt, le), at least one of them an eq, a
+     * non-empty prefix or a range with both ends on an indexed field (id, email, lastName, firstName). Sorted with
+     * sort=field,asc|desc, several times for several columns.
+     */
+    @GetMapping(value = "/query", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, EmployeeMediaTypes.APPLICATION_SMILE_VALUE,
+            EmployeeMediaTypes.APPLICATION_PROTOBUF_VALUE, EmployeeMediaTypes.APPLICATION_PROTOBUF_REGISTERED_VALUE})
+    public ResponseEntity<CursorPage<EmployeeSummary>> queryEmployees(@RequestParam(value = "filter", required = false) List<String> filters,
+                                                                      Sort sort,
+                                                                      @RequestParam(value = "cursor", required = false) String cursor,
+                                                                      @RequestParam(value = "size", required = false) Integer size,
+                                                                      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        log.debug("Query employees: filters {} sort {}", filters, sort);
+        CursorPage<EmployeeSummary> page = this.employeeService.queryEmployees(filters == null ? List.of() : filters, sort, cursor, size);
+        return ok(EmployeeETags.of(page), accept).body(page);
     }
 
-    @PutMapping("/id/{id}")
-    public ResponseEntity<Employee> updateEmployee(@PathVariable("id") Long id, @RequestBody Employee employee) {
-        log.info("Update employee by id: {} Employee: {}", id, employee);
+    @GetMapping(value = "/id/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, EmployeeMediaTypes.APPLICATION_SMILE_VALUE,
+            EmployeeMediaTypes.APPLICATION_PROTOBUF_VALUE, EmployeeMediaTypes.APPLICATION_PROTOBUF_REGISTERED_VALUE})
+    public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") Long id, @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        log.debug("Get employee by id: {}", id);
+        //A matching If-None-Match is answered with 304 before the body is serialized, a cached employee costs no query
+        return this.employeeService.getEmployeeById(id)
+                .map(employee -> ok(EmployeeETags.of(employee), accept).body(employee))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/email/{email}")
+    public ResponseEntity<Employee> getEmployeeByEmail(@PathVariable("email") String email) {
+        log.debug("Get employee by email: {}", email);
+        return this.employeeService.getEmployeeByEmail(email).map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PutMapping(value = "/id/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, EmployeeMediaTypes.APPLICATION_SMILE_VALUE,
+            EmployeeMediaTypes.APPLICATION_PROTOBUF_VALUE, EmployeeMediaTypes.APPLICATION_PROTOBUF_REGISTERED_VALUE})
+    public ResponseEntity<Employee> updateEmployee(@PathVariable("id") Long id, @RequestBody Employee employee,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                   @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        log.debug("Update employee by id: {} Employee: {}", id, employee);
         return this.employeeService.getEmployeeById(id).map(e -> {
+            if (ifMatch != null && !"*".equals(ifMatch.trim())) {
+                List<Long> versions = EmployeeETags.versions(ifMatch, id);
+                if (versions.isEmpty()) {
+                    throw new PreconditionFailed(String.format("If-Match does not match employee. %d", id));
+                }
+                //The database has the last word, a stale cached copy must not turn a valid If-Match into a 412
+                e.setVersion(versions.contains(e.getVersion()) ? e.getVersion() : versions.get(0));
+            }
             e.setLastName(employee.getLastName());
             e.setFirstName(employee.getFirstName());
             e.setEmail(employee.getEmail());
-            Employee updatedEmployee = this.employeeService.updateEmployee(e);
-            return new ResponseEntity<Employee>(updatedEmployee, HttpStatus.OK);
+            Employee updatedEmployee;
+            try {
+                updatedEmployee = this.employeeService.updateEmployee(e);
+            } catch (OptimisticLockingFailureException conflict) {
+                if (ifMatch != null) {
+                    throw new PreconditionFailed(String.format("Employee was modified after the If-Match version. %d", id), conflict);
+                }
+                throw conflict;
+            }
+            return ok(EmployeeETags.of(updatedEmployee), accept).body(updatedEmployee);
         }).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    @PatchMapping("/id/{id}")
+    public ResponseEntity<Void> patchEmployee(@PathVariable("id") Long id, @RequestBody EmployeePatch patch) {
+        log.debug("Patch employee by id: {} Patch: {}", id, patch);
+        return this.employeeService.patchEmployee(id, patch)
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.notFound().build();
+    }
+
     @DeleteMapping("/id/{id}")
     public ResponseEntity deleteEmployee(@PathVariable("id") Long id) {
-        log.info("Delete employee by id: {}", id);
-        return this.employeeService.getEmployeeById(id)
-                .map(e -> {
-                    this.employeeService.deleteEmployee(id);
-                    return ResponseEntity.status(HttpStatus.OK).build();
-                })
-                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+        log.debug("Delete employee by id: {}", id);
+        return this.employeeService.deleteEmployee(id)
+                ? ResponseEntity.status(HttpStatus.OK).build()
+                : ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+    }
+
+    /**
+     * @param eTag   tag of the data, see {@link EmployeeETags}
+     * @param accept value of the Accept header
+     * @return 200 in the format the converters will write, with the tag of that format. Negotiated here because
+     * If-None-Match is compared before the body is written
+     */
+    private static ResponseEntity.BodyBuilder ok(String eTag, String accept) {
+        MediaType mediaType = EmployeeMediaTypes.negotiate(accept, EmployeeMediaTypes.RESPONSE_MEDIA_TYPES);
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .varyBy(HttpHeaders.ACCEPT)
+                .eTag(EmployeeETags.of(eTag, mediaType));
+    }
+
+    private static boolean isMalformed(Throwable e) {
+        return e.getCause() instanceof JsonProcessingException || e.getCause() instanceof InvalidProtocolBufferException;
+    }
+
+    private static boolean prefersAsync(String prefer) {
+        return prefer != null && Arrays.stream(prefer.split(","))
+                .anyMatch(preference -> preference.strip().equalsIgnoreCase(RESPOND_ASYNC));
     }
 }
@@ -0,0 +1,173 @@
+package com.dilshan.testing.controller;
+
+import com.dilshan.testing.codec.EmployeeMediaTypes;
+import com.dilshan.testing.dto.BatchCreateResult;
+import com.dilshan.testing.dto.CursorPage;
+import com.dilshan.testing.dto.EmployeePatch;
+import com.dilshan.testing.dto.EmployeeSummary;
+import com.dilshan.testing.exception.InvalidRequest;
+import com.dilshan.testing.exception.PreconditionFailed;
+import com.dilshan.testing.model.Employee;
+import com.dilshan.testing.service.ReactiveEmployeeService;
+import com.dilshan.testing.util.EmployeeETags;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Handlers of the functional routes in {@link EmployeeRouter}, the reactive counterpart of {@link EmployeeController}.
+ */
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class EmployeeHandler {
+
+    /**
+     * Body formats of the routes, functional endpoints do not negotiate between writers so the handler picks
+     * the content type. The first one is the default.
+     */
+    private static final List<MediaType> MEDIA_TYPES = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR,
+            EmployeeMediaTypes.APPLICATION_SMILE);
+
+    private final ReactiveEmployeeService employeeService;
+
+    public Mono<ServerResponse> createEmployee(ServerRequest request) {
+        return request.bodyToMono(Employee.class)
+                .doOnNext(employee -> log.debug("Create Employee: {}", employee))
+                .flatMap(this.employeeService::saveEmployee)
+                .flatMap(employee -> ServerResponse.status(HttpStatus.CREATED).contentType(negotiate(request)).bodyValue(employee));
+    }
+
+    public Mono<ServerResponse> createEmployees(ServerRequest request) {
+        log.debug("Create Employees in batch...");
+        //The JSON array is decoded element by element, the socket is read only as fast as the chunks are inserted
+        return this.employeeService.saveEmployees(request.bodyToFlux(Employee.class))
+                .flatMap(created -> ServerResponse.status(HttpStatus.CREATED).contentType(negotiate(request))
+                        .bodyValue(new BatchCreateResult(created)));
+    }
+
+    public Mono<ServerResponse> getAllEmployees(ServerRequest request) {
+        log.debug("Get all employees...");
+        return ServerResponse.ok().contentType(negotiate(request)).body(this.employeeService.getEmployeeSummaries(), EmployeeSummary.class);
+    }
+
+    public Mono<ServerResponse> exportEmployees(ServerRequest request) {
+        log.debug("Export all employees...");
+        //Each row is written as soon as it is read, the result set is consumed at the pace of the client
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(this.employeeService.exportEmployees(), Employee.class);
+    }
+
+    public Mono<ServerResponse> getEmployees(ServerRequest request) {
+        String cursor = request.queryParam("cursor").orElse(null);
+        Integer size = intQueryParam(request, "size");
+        log.debug("Get employees page: cursor {} size {}", cursor, size);
+        return this.employeeService.getEmployees(cursor, size).flatMap(page -> ok(request, page));
+    }
+
+    public Mono<ServerResponse> searchEmployees(ServerRequest request) {
+        String firstName = requiredQueryParam(request, "firstName");
+        String lastName = requiredQueryParam(request, "lastName");
+        log.debug("Search employees: firstName {} lastName {}", firstName, lastName);
+        return this.employeeService.searchEmployees(firstName, lastName, request.queryParam("cursor").orElse(null),
+                intQueryParam(request, "size")).flatMap(page -> ok(request, page));
+    }
+
+    public Mono<ServerResponse> getEmployeeById(ServerRequest request) {
+        Long id = idPathVariable(request);
+        log.debug("Get employee by id: {}", id);
+        //A matching If-None-Match is answered with 304 before the body is encoded
+        return this.employeeService.getEmployeeById(id)
+                .flatMap(employee -> ServerResponse.ok().eTag(EmployeeETags.of(employee)).contentType(negotiate(request)).bodyValue(employee))
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    public Mono<ServerResponse> getEmployeeByEmail(ServerRequest request) {
+        String email = request.pathVariable("email");
+        log.debug("Get employee by email: {}", email);
+        return this.employeeService.getEmployeeByEmail(email)
+                .flatMap(employee -> ServerResponse.ok().contentType(negotiate(request)).bodyValue(employee))
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    public Mono<ServerResponse> updateEmployee(ServerRequest request) {
+        Long id = idPathVariable(request);
+        String ifMatch = request.headers().firstHeader(HttpHeaders.IF_MATCH);
+        return request.bodyToMono(Employee.class)
+                .doOnNext(employee -> log.debug("Update employee by id: {} Employee: {}", id, employee))
+                .flatMap(employee -> this.employeeService.getEmployeeById(id).flatMap(e -> {
+                    if (ifMatch != null && !"*".equals(ifMatch.trim())) {
+                        List<Long> versions = EmployeeETags.versions(ifMatch, id);
+                        if (!versions.contains(e.getVersion())) {
+                            return Mono.error(new PreconditionFailed(String.format("If-Match does not match employee. %d", id)));
+                        }
+                    }
+                    e.setLastName(employee.getLastName());
+                    e.setFirstName(employee.getFirstName());
+                    e.setEmail(employee.getEmail());
+                    return this.employeeService.updateEmployee(e);
+                }))
+                .onErrorMap(OptimisticLockingFailureException.class, conflict -> ifMatch == null ? conflict
+                        : new PreconditionFailed(String.format("Employee was modified after the If-Match version. %d", id), conflict))
+                .flatMap(employee -> ServerResponse.ok().eTag(EmployeeETags.of(employee)).contentType(negotiate(request)).bodyValue(employee))
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    public Mono<ServerResponse> patchEmployee(ServerRequest request) {
+        Long id = idPathVariable(request);
+        return request.bodyToMono(EmployeePatch.class)
+                .doOnNext(patch -> log.debug("Patch employee by id: {} Patch: {}", id, patch))
+                .flatMap(patch -> this.employeeService.patchEmployee(id, patch))
+                .flatMap(patched -> patched ? ServerResponse.ok().build() : ServerResponse.notFound().build());
+    }
+
+    public Mono<ServerResponse> deleteEmployee(ServerRequest request) {
+        Long id = idPathVariable(request);
+        log.debug("Delete employee by id: {}", id);
+        return this.employeeService.deleteEmployee(id)
+                .flatMap(deleted -> deleted ? ServerResponse.ok().build() : ServerResponse.notFound().build());
+    }
+
+    private static Mono<ServerResponse> ok(ServerRequest request, CursorPage<EmployeeSummary> page) {
+        return ServerResponse.ok().eTag(EmployeeETags.of(page)).contentType(negotiate(request)).bodyValue(page);
+    }
+
+    private static MediaType negotiate(ServerRequest request) {
+        return EmployeeMediaTypes.negotiate(request.headers().accept(), MEDIA_TYPES);
+    }
+
+    private static Long idPathVariable(ServerRequest request) {
+        try {
+            return Long.valueOf(request.pathVariable("id"));
+        } catch (NumberFormatException e) {
+            throw new InvalidRequest(String.format("Invalid employee id. %s", request.pathVariable("id")), e);
+        }
+    }
+
+    private static String requiredQueryParam(ServerRequest request, String name) {
+        return request.queryParam(name)
+                .orElseThrow(() -> new InvalidRequest(String.format("Required parameter is missing. %s", name)));
+    }
+
+    private static Integer intQueryParam(ServerRequest request, String name) {
+        return request.queryParam(name).map(value -> {
+            try {
+                return Integer.valueOf(value);
+            } catch (NumberFormatException e) {
+                throw new InvalidRequest(String.format("Parameter %s must be a number. %s", name, value), e);
+            }
+        }).orElse(null);
+    }
+}
@@ -0,0 +1,112 @@
+package com.dilshan.testing.controller;
+
+import com.dilshan.testing.codec.EmployeeCborEncoder;
+import com.dilshan.testing.exception.GlobalExceptionHandler;
+import com.dilshan.testing.exception.InvalidRequest;
+import com.dilshan.testing.exception.PreconditionFailed;
+import com.dilshan.testing.exception.ResourceAlreadyExists;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.codec.CodecException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Functional WebFlux routes mirroring the /api/employees routes of {@link EmployeeController}, errors are
+ * mapped to the same ProblemDetail responses as {@link com.dilshan.testing.exception.GlobalExceptionHandler}.
+ */
+@Configuration
+@Profile("reactive")
+@Slf4j
+public class EmployeeRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> employeeRoutes(EmployeeHandler handler) {
+        return route()
+                .path("/api/employees", builder -> builder
+                        .POST("", handler::createEmployee)
+                        .POST("/batch", contentType(MediaType.APPLICATION_JSON), handler::createEmployees)
+                        .GET("/all", handler::getAllEmployees)
+                        .GET("/export", handler::exportEmployees)
+                        .GET("/page", handler::getEmployees)
+                        .GET("/search", handler::searchEmployees)
+                        .GET("/id/{id}", handler::getEmployeeById)
+                        .GET("/email/{email}", handler::getEmployeeByEmail)
+                        .PUT("/id/{id}", handler::updateEmployee)
+                        .PATCH("/id/{id}", handler::patchEmployee)
+                        .DELETE("/id/{id}", handler::deleteEmployee))
+                //Parameters are validated before the handler returns, deferring turns those exceptions into error signals
+                .filter((request, next) -> Mono.defer(() -> next.handle(request)))
+                .onError(InvalidRequest.class, (e, request) -> {
+                    log.debug("Invalid request: {}", e.getMessage());
+                    return problem(request, HttpStatus.BAD_REQUEST, e.getMessage());
+                })
+                .onError(ServerWebInputException.class, (e, request) ->
+                        problem(request, HttpStatus.BAD_REQUEST, "Malformed request body"))
+                .onError(CodecException.class, (e, request) ->
+                        problem(request, HttpStatus.BAD_REQUEST, "Malformed request body"))
+                .onError(ResourceAlreadyExists.class, (e, request) ->
+                        problem(request, HttpStatus.CONFLICT, e.getMessage()))
+                .onError(OptimisticLockingFailureException.class, (e, request) -> {
+                    Metrics.counter(GlobalExceptionHandler.CONFLICT_METRIC, "reason", GlobalExceptionHandler.CONCURRENT_UPDATE).increment();
+                    return problem(request, HttpStatus.CONFLICT, "Employee was modified concurrently, reload it and retry");
+                })
+                .onError(PreconditionFailed.class, (e, request) -> {
+                    Metrics.counter(GlobalExceptionHandler.CONFLICT_METRIC, "reason", GlobalExceptionHandler.PRECONDITION_FAILED).increment();
+                    return problem(request, HttpStatus.PRECONDITION_FAILED, e.getMessage());
+                })
+                .onError(DataIntegrityViolationException.class, (e, request) -> {
+                    log.debug("Constraint violation: {}", ((DataIntegrityViolationException) e).getMostSpecificCause().getMessage());
+                    return problem(request, HttpStatus.CONFLICT, "Request conflicts with existing data");
+                })
+                .build();
+    }
+
+    /**
+     * Netty event loop server, Tomcat is on the classpath for the servlet deployment and would otherwise be chosen.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * application/cbor next to JSON and Smile, which WebFlux registers on its own. Copied from the JSON
+     * mapper so both encode the same documents, {@link EmployeeHandler} picks the format from the Accept header.
+     */
+    @Bean
+    public CodecCustomizer cborCodecCustomizer(ObjectMapper objectMapper) {
+        ObjectMapper cborMapper = objectMapper.copyWith(new CBORFactory());
+        return configurer -> {
+            configurer.customCodecs().register(new EmployeeCborEncoder(cborMapper));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+        };
+    }
+
+    private static Mono<ServerResponse> problem(ServerRequest request, HttpStatus status, String detail) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(status, detail);
+        problem.setInstance(URI.create(request.path()));
+        return ServerResponse.status(status).contentType(MediaType.APPLICATION_PROBLEM_JSON).bodyValue(problem);
+    }
+}
@@ -0,0 +1,9 @@
+package com.dilshan.testing.dto;
+
+/**
+ * Outcome of a bulk create.
+ *
+ * @param created number of employees inserted
+ */
+public record BatchCreateResult(int created) {
+}
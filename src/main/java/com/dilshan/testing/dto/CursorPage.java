@@ -0,0 +1,44 @@
+package com.dilshan.testing.dto;
+
+import com.dilshan.testing.util.CursorCodec;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * One page of a keyset-paginated listing.
+ *
+ * @param content    rows of this page
+ * @param nextCursor opaque token for the next page, null when this is the last page
+ */
+public record CursorPage<T>(List<T> content, String nextCursor) {
+
+    /**
+     * @param rows     rows read with a limit of pageSize + 1, in ascending id order
+     * @param pageSize requested page size
+     * @param id       id of a row
+     * @return the first pageSize rows, with a cursor after the last one when there was an extra row
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int pageSize, ToLongFunction<T> id) {
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> content = List.copyOf(rows.subList(0, pageSize));
+        return new CursorPage<>(content, CursorCodec.encodeId(id.applyAsLong(content.get(pageSize - 1))));
+    }
+
+    /**
+     * @param rows     rows read with a limit of pageSize + 1, in the order of the listing
+     * @param pageSize requested page size
+     * @param cursor   cursor pointing after a row
+     * @return the first pageSize rows, with the cursor of the last one when there was an extra row
+     */
+    public static <T> CursorPage<T> ofKeyset(List<T> rows, int pageSize, Function<T, String> cursor) {
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> content = List.copyOf(rows.subList(0, pageSize));
+        return new CursorPage<>(content, cursor.apply(content.get(pageSize - 1)));
+    }
+}
@@ -0,0 +1,29 @@
+package com.dilshan.testing.dto;
+
+import com.dilshan.testing.exception.InvalidRequest;
+
+import java.util.Locale;
+
+/**
+ * Number of employees and how it was obtained.
+ *
+ * @param count    number of rows in the employees table
+ * @param accuracy EXACT when counted, ESTIMATED when taken from the table statistics
+ */
+public record EmployeeCount(long count, Accuracy accuracy) {
+
+    public enum Accuracy {
+        EXACT, ESTIMATED;
+
+        /**
+         * @param accuracy exact or estimated, in any case
+         */
+        public static Accuracy parse(String accuracy) {
+            try {
+                return valueOf(accuracy.strip().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidRequest(String.format("Count accuracy must be exact or estimated. %s", accuracy), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.dilshan.testing.dto;
+
+import com.dilshan.testing.exception.InvalidRequest;
+
+import java.util.Locale;
+
+/**
+ * One condition of GET /api/employees/query, written as field:operator:value (lastName:eq:Wije). The value
+ * is everything after the second colon, so it may contain colons itself.
+ *
+ * @param field    property of Employee
+ * @param operator comparison against value
+ * @param value    value as sent, converted to the type of the field when the query is built
+ */
+public record EmployeeFilter(String field, Operator operator, String value) {
+
+    public enum Operator {
+        EQ, PREFIX, GT, GE, LT, LE
+    }
+
+    public static EmployeeFilter parse(String filter) {
+        String[] parts = filter.split(":", 3);
+        if (parts.length < 3 || parts[0].isBlank()) {
+            throw new InvalidRequest(String.format("Filter must be field:operator:value. %s", filter));
+        }
+        try {
+            return new EmployeeFilter(parts[0].strip(), Operator.valueOf(parts[1].strip().toUpperCase(Locale.ROOT)), parts[2]);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequest(String.format("Unknown filter operator %s, expected one of eq, prefix, gt, ge, lt, le. %s",
+                    parts[1], filter), e);
+        }
+    }
+}
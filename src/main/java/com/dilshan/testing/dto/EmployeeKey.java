@@ -0,0 +1,7 @@
+package com.dilshan.testing.dto;
+
+/**
+ * Unique keys of an employee, read without hydrating the entity.
+ */
+public record EmployeeKey(Long id, String email) {
+}
@@ -0,0 +1,11 @@
+package com.dilshan.testing.dto;
+
+/**
+ * Partial update of an employee, null fields are left unchanged.
+ */
+public record EmployeePatch(String firstName, String lastName, String email) {
+
+    public boolean isEmpty() {
+        return this.firstName == null && this.lastName == null && this.email == null;
+    }
+}
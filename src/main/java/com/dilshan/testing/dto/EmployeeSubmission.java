@@ -0,0 +1,32 @@
+package com.dilshan.testing.dto;
+
+/**
+ * Outcome of an employee submitted to the write-behind queue (POST /api/employees with Prefer: respond-async).
+ *
+ * @param id         tracking id returned with 202 Accepted
+ * @param status     QUEUED until the writer has handled the submission
+ * @param employeeId id of the created employee, null unless CREATED
+ * @param detail     why the employee was not created, null unless REJECTED or FAILED
+ */
+public record EmployeeSubmission(String id, Status status, Long employeeId, String detail) {
+
+    public enum Status {
+        QUEUED, CREATED, REJECTED, FAILED
+    }
+
+    public static EmployeeSubmission queued(String id) {
+        return new EmployeeSubmission(id, Status.QUEUED, null, null);
+    }
+
+    public static EmployeeSubmission created(String id, Long employeeId) {
+        return new EmployeeSubmission(id, Status.CREATED, employeeId, null);
+    }
+
+    public static EmployeeSubmission rejected(String id, String detail) {
+        return new EmployeeSubmission(id, Status.REJECTED, null, detail);
+    }
+
+    public static EmployeeSubmission failed(String id, String detail) {
+        return new EmployeeSubmission(id, Status.FAILED, null, detail);
+    }
+}
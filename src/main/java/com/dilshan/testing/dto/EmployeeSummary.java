@@ -0,0 +1,7 @@
+package com.dilshan.testing.dto;
+
+/**
+ * Read-only projection of an employee, selected column by column instead of hydrating the entity.
+ */
+public record EmployeeSummary(Long id, String firstName, String lastName, String email) {
+}
@@ -0,0 +1,21 @@
+package com.dilshan.testing.exception;
+
+import lombok.Getter;
+
+/**
+ * A bulk create stopped, a chunk was rolled back or the next employee could not be read. The chunks before it
+ * stay committed.
+ */
+@Getter
+public class BatchCreateFailed extends RuntimeException {
+
+    /**
+     * Number of employees committed by the earlier chunks.
+     */
+    private final int created;
+
+    public BatchCreateFailed(int created, RuntimeException cause) {
+        super(String.format("%s %d employees of earlier chunks were saved", cause.getMessage(), created), cause);
+        this.created = created;
+    }
+}
@@ -0,0 +1,95 @@
+package com.dilshan.testing.exception;
+
+import com.dilshan.testing.model.Employee;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Locale;
+
+@RestControllerAdvice
+@Slf4j
+public class GlobalExceptionHandler {
+
+    /**
+     * Counter of rejected employee writes, tagged with the reason. Boot adds its registries to the global one.
+     */
+    public static final String CONFLICT_METRIC = "employees.update.conflicts";
+    public static final String CONCURRENT_UPDATE = "concurrent_update";
+    public static final String PRECONDITION_FAILED = "precondition_failed";
+
+    @ExceptionHandler(InvalidRequest.class)
+    public ProblemDetail handleInvalidRequest(InvalidRequest e) {
+        log.debug("Invalid request: {}", e.getMessage());
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    @ExceptionHandler(ResourceAlreadyExists.class)
+    public ProblemDetail handleResourceAlreadyExists(ResourceAlreadyExists e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, e.getMessage());
+    }
+
+    /**
+     * Only the unique email conflicts with existing data. The other violations, a missing value or one longer than
+     * its column, are wrong input.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ProblemDetail handleDataIntegrityViolation(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        log.debug("Constraint violation: {}", message);
+        if (message != null && message.toLowerCase(Locale.ROOT).contains(Employee.EMAIL_CONSTRAINT)) {
+            return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, "Employee already exists with given email");
+        }
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, "Employee has a missing or too long value");
+    }
+
+    @ExceptionHandler(BatchCreateFailed.class)
+    public ProblemDetail handleBatchCreateFailed(BatchCreateFailed e) {
+        ProblemDetail problem = switch (e.getCause()) {
+            case ResourceAlreadyExists alreadyExists -> this.handleResourceAlreadyExists(alreadyExists);
+            case DataIntegrityViolationException violation -> this.handleDataIntegrityViolation(violation);
+            case InvalidRequest invalidRequest -> this.handleInvalidRequest(invalidRequest);
+            case CannotCreateTransactionException noConnection -> this.handleCannotCreateTransaction(noConnection);
+            default -> {
+                log.error("Bulk create failed after {} employees", e.getCreated(), e);
+                yield ProblemDetail.forStatusAndDetail(HttpStatus.INTERNAL_SERVER_ERROR, "Employees could not be saved");
+            }
+        };
+        //The client resends the array from this position
+        problem.setProperty("created", e.getCreated());
+        return problem;
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ProblemDetail handleOptimisticLockingFailure(OptimisticLockingFailureException e) {
+        log.debug("Concurrent update: {}", e.getMessage());
+        Metrics.counter(CONFLICT_METRIC, "reason", CONCURRENT_UPDATE).increment();
+        return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, "Employee was modified concurrently, reload it and retry");
+    }
+
+    @ExceptionHandler(PreconditionFailed.class)
+    public ProblemDetail handlePreconditionFailed(PreconditionFailed e) {
+        log.debug("Precondition failed: {}", e.getMessage());
+        Metrics.counter(CONFLICT_METRIC, "reason", PRECONDITION_FAILED).increment();
+        return ProblemDetail.forStatusAndDetail(HttpStatus.PRECONDITION_FAILED, e.getMessage());
+    }
+
+    @ExceptionHandler(QueryTimeoutException.class)
+    public ProblemDetail handleQueryTimeout(QueryTimeoutException e) {
+        log.warn("Query cancelled: {}", e.getMostSpecificCause().getMessage());
+        return ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, "Query took too long, narrow the filters or retry later");
+    }
+
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ProblemDetail handleCannotCreateTransaction(CannotCreateTransactionException e) {
+        log.warn("No database connection: {}", e.getMostSpecificCause().getMessage());
+        return ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, "Database is busy, retry later");
+    }
+}
@@ -0,0 +1,11 @@
+package com.dilshan.testing.exception;
+
+public class InvalidRequest extends RuntimeException {
+    public InvalidRequest(String message) {
+        super(message);
+    }
+
+    public InvalidRequest(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
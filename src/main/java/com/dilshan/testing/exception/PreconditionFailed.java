@@ -0,0 +1,11 @@
+package com.dilshan.testing.exception;
+
+public class PreconditionFailed extends RuntimeException {
+    public PreconditionFailed(String message) {
+        super(message);
+    }
+
+    public PreconditionFailed(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
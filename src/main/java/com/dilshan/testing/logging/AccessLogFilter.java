@@ -0,0 +1,73 @@
+package com.dilshan.testing.logging;
+
+import com.dilshan.testing.config.AccessLogProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One structured line per sampled request on the access logger, as key-value pairs instead of a formatted
+ * message. Server errors and slow requests are always logged, the rest is sampled. The access logger
+ * writes through a bounded asynchronous appender (logback-spring.xml), a full queue drops lines instead
+ * of blocking the request thread. Requests that are not sampled cost a clock read and a random number.
+ */
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    public static final String LOGGER_NAME = "access";
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger(LOGGER_NAME);
+
+    private final AccessLogProperties accessLogProperties;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            filterChain.doFilter(request, response);
+        } catch (ServletException | RuntimeException e) {
+            //The container turns the exception into a 500 after this filter returns, the response still says 200
+            failed = true;
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+            if (this.shouldLog(status, elapsed)) {
+                //The route pattern instead of the path, ids and emails stay out of the log
+                Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                ACCESS_LOG.atInfo()
+                        .addKeyValue("method", request.getMethod())
+                        .addKeyValue("uri", uri != null ? uri : request.getRequestURI())
+                        .addKeyValue("status", status)
+                        .addKeyValue("durationMs", TimeUnit.NANOSECONDS.toMillis(elapsed))
+                        .log();
+            }
+        }
+    }
+
+    private boolean shouldLog(int status, long elapsedNanos) {
+        if (!this.accessLogProperties.isEnabled() || !ACCESS_LOG.isInfoEnabled()) {
+            return false;
+        }
+        if (status >= 500 || elapsedNanos >= this.accessLogProperties.getSlowThreshold().toNanos()) {
+            return true;
+        }
+        return ThreadLocalRandom.current().nextDouble() < this.accessLogProperties.getSampleRate();
+    }
+}
@@ -2,24 +2,44 @@ package com.dilshan.testing.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
-@Table(name = "employees")
+@DynamicUpdate
+@Table(name = "employees",
+        uniqueConstraints = @UniqueConstraint(name = Employee.EMAIL_CONSTRAINT, columnNames = "email"),
+        indexes = {
+                @Index(name = "idx_employees_last_first", columnList = "last_name, first_name"),
+                //Prefix search ordered by the name and then the id, which the composite index cannot give
+                @Index(name = "idx_employees_first_name", columnList = "first_name"),
+                @Index(name = "idx_employees_last_name", columnList = "last_name")
+        })
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Employee {
 
+    public static final String EMAIL_CONSTRAINT = "uk_employees_email";
+    public static final int ID_ALLOCATION_SIZE = 50;
+    //Characters of the name and email columns, checked before a write that is answered ahead of the INSERT
+    public static final int COLUMN_LENGTH = 255;
+
+    //Pooled sequence ids (a table on MySQL) are assigned before the INSERT, unlike IDENTITY, so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employees_seq")
+    @SequenceGenerator(name = "employees_seq", sequenceName = "employees_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
-    @Column(name = "first_name", nullable = false)
+    @Column(name = "first_name", nullable = false, length = COLUMN_LENGTH)
     private String firstName;
-    @Column(name = "last_name", nullable = false)
+    @Column(name = "last_name", nullable = false, length = COLUMN_LENGTH)
     private String lastName;
-    @Column(nullable = false)
+    @Column(nullable = false, length = COLUMN_LENGTH)
     private String email;
+    //Bumped by every write, the strong ETag of the employee; existing rows start at 0 when the column is added
+    @Version
+    @Column(nullable = false)
+    private long version;
 
 }
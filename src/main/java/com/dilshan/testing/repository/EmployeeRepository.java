@@ -1,22 +1,139 @@
 package com.dilshan.testing.repository;
 
+import com.dilshan.testing.dto.EmployeeKey;
+import com.dilshan.testing.dto.EmployeeSummary;
 import com.dilshan.testing.model.Employee;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeRepositoryCustom {
 
     /**
      * @param email string
      * @return Optional Employee
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     Optional<Employee> findByEmail(String email);
 
+    /**
+     * @return List of EmployeeSummary
+     * Every employee as a read-only projection, no entity is hydrated or tracked
+     */
+    @Query("select new com.dilshan.testing.dto.EmployeeSummary(e.id, e.firstName, e.lastName, e.email) from Employee e")
+    List<EmployeeSummary> findAllSummaries();
+
+    /**
+     * @param id    exclusive lower bound, the last id of the previous page
+     * @param limit maximum number of rows
+     * @return List of EmployeeSummary
+     * Keyset (seek) pagination on the primary key, cost does not grow with the page depth
+     */
+    List<EmployeeSummary> findSummariesByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * @param lastName  string
+     * @param firstName string
+     * @param id        exclusive lower bound, the last id of the previous page
+     * @param limit     maximum number of rows
+     * @return List of EmployeeSummary
+     * Every employee with the given name, as a range scan of idx_employees_last_first (the index
+     * carries the primary key, so the id order and bound come from the index too)
+     */
+    List<EmployeeSummary> findByLastNameAndFirstNameAndIdGreaterThanOrderByIdAsc(String lastName, String firstName, Long id, Limit limit);
+
+    /**
+     * @param prefix prefix of the first name
+     * @param limit  maximum number of rows
+     * @return List of EmployeeSummary
+     * Employees whose first name starts with prefix, as LIKE 'prefix%' with the wildcards of the prefix escaped.
+     * Case-insensitive through the column collation. A range scan of idx_employees_first_name, whose entries
+     * carry the primary key, so the rows come in index order and the scan stops at the limit
+     */
+    List<EmployeeSummary> findSummariesByFirstNameStartingWithOrderByFirstNameAscIdAsc(String prefix, Limit limit);
+
+    /**
+     * @param prefix prefix of the last name
+     * @param limit  maximum number of rows
+     * @return List of EmployeeSummary
+     * Same as the first name, on idx_employees_last_name. idx_employees_last_first cannot give this order, its
+     * entries are ordered by the first name before the id
+     */
+    List<EmployeeSummary> findSummariesByLastNameStartingWithOrderByLastNameAscIdAsc(String prefix, Limit limit);
+
+    /**
+     * @param prefix prefix of the email
+     * @param limit  maximum number of rows
+     * @return List of EmployeeSummary
+     * Same as the first name, on the unique email index
+     */
+    List<EmployeeSummary> findSummariesByEmailStartingWithOrderByEmailAscIdAsc(String prefix, Limit limit);
+
+    /**
+     * @param id employee id
+     * @return number of rows deleted, 0 when no employee has the id
+     * Single DELETE ... WHERE id = ?, unlike deleteById the entity is not loaded first
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from Employee e where e.id = :id")
+    int deleteEmployeeById(@Param("id") Long id);
+
+    /**
+     * @return the stored emails matching any of emails, compared in the column's collation, case-insensitive on MySQL
+     */
+    @Query("select e.email from Employee e where e.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * @return Stream of Employee
+     * Forward-only scan of the whole table, rows are pulled from a server side cursor in chunks of
+     * the fetch size (needs useCursorFetch on the MySQL connection). Must be consumed inside a
+     * transaction and closed by the caller.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select e from Employee e")
+    Stream<Employee> streamAll();
+
+    /**
+     * @return Stream of EmployeeKey
+     * Forward-only scan of ids and emails only, same cursor settings as streamAll
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select new com.dilshan.testing.dto.EmployeeKey(e.id, e.email) from Employee e")
+    Stream<EmployeeKey> streamKeys();
+
+    /**
+     * @return Stream of EmployeeSummary
+     * Forward-only scan of the summaries, same cursor settings as streamAll
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("select new com.dilshan.testing.dto.EmployeeSummary(e.id, e.firstName, e.lastName, e.email) from Employee e")
+    Stream<EmployeeSummary> streamSummaries();
+
     /**
      * @param firstName string
      * @param lastName  string
@@ -0,0 +1,39 @@
+package com.dilshan.testing.repository;
+
+import com.dilshan.testing.dto.EmployeePatch;
+import com.dilshan.testing.dto.EmployeeSummary;
+import com.dilshan.testing.model.Employee;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface EmployeeRepositoryCustom {
+
+    /**
+     * @param id    employee id
+     * @param patch fields to change, null fields are left out of the statement
+     * @return number of rows updated, 0 when no employee has the id
+     * Single UPDATE ... WHERE id = ? setting only the supplied columns, without loading the entity
+     */
+    int patch(Long id, EmployeePatch patch);
+
+    /**
+     * @param specification conditions on the employee
+     * @param sort          order of the rows
+     * @param limit         maximum number of rows
+     * @return List of EmployeeSummary
+     * Summaries selected column by column, the statement is cancelled after app.employees.query.timeout
+     */
+    List<EmployeeSummary> findSummaries(Specification<Employee> specification, Sort sort, Limit limit);
+
+    /**
+     * @return estimated number of rows, null when the table has no statistics
+     * Row count InnoDB keeps in its table statistics, read from information_schema without touching the
+     * table. It is an estimate, kept up to date by InnoDB as rows are inserted and deleted. information_schema
+     * caches it for information_schema_stats_expiry (24h by default), which a SET_VAR hint cannot change, so the
+     * session value is set to 0 around the query on the same connection
+     */
+    Long estimateCount();
+}
@@ -0,0 +1,89 @@
+package com.dilshan.testing.repository;
+
+import com.dilshan.testing.config.EmployeeProperties;
+import com.dilshan.testing.dto.EmployeePatch;
+import com.dilshan.testing.dto.EmployeeSummary;
+import com.dilshan.testing.model.Employee;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class EmployeeRepositoryCustomImpl implements EmployeeRepositoryCustom {
+
+    private final EntityManager entityManager;
+    private final EmployeeProperties employeeProperties;
+
+    @Override
+    @Transactional
+    public int patch(Long id, EmployeePatch patch) {
+        CriteriaBuilder criteriaBuilder = this.entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Employee> update = criteriaBuilder.createCriteriaUpdate(Employee.class);
+        Root<Employee> employee = update.from(Employee.class);
+        if (patch.firstName() != null) {
+            update.set(employee.<String>get("firstName"), patch.firstName());
+        }
+        if (patch.lastName() != null) {
+            update.set(employee.<String>get("lastName"), patch.lastName());
+        }
+        if (patch.email() != null) {
+            update.set(employee.<String>get("email"), patch.email());
+        }
+        //Bulk updates bypass Hibernate's versioning, the version is bumped by hand so ETags change
+        update.set(employee.<Long>get("version"), criteriaBuilder.sum(employee.<Long>get("version"), 1L));
+        update.where(criteriaBuilder.equal(employee.get("id"), id));
+        return this.entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmployeeSummary> findSummaries(Specification<Employee> specification, Sort sort, Limit limit) {
+        CriteriaBuilder criteriaBuilder = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<EmployeeSummary> query = criteriaBuilder.createQuery(EmployeeSummary.class);
+        Root<Employee> employee = query.from(Employee.class);
+        query.select(criteriaBuilder.construct(EmployeeSummary.class,
+                employee.get("id"), employee.get("firstName"), employee.get("lastName"), employee.get("email")));
+        Predicate predicate = specification.toPredicate(employee, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, employee, criteriaBuilder));
+        return this.entityManager.createQuery(query)
+                //Caps what one request can cost when its indexed filter still matches a large range
+                .setHint(SpecHints.HINT_SPEC_QUERY_TIMEOUT, (int) this.employeeProperties.getQuery().getTimeout().toMillis())
+                .setMaxResults(limit.max())
+                .getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Long estimateCount() {
+        return this.entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("set session information_schema_stats_expiry = 0");
+                try (ResultSet rows = statement.executeQuery("select table_rows from information_schema.tables "
+                        + "where table_schema = database() and table_name = 'employees'")) {
+                    return rows.next() ? rows.getObject(1, Long.class) : null;
+                } finally {
+                    //The connection goes back to the pool
+                    statement.execute("set session information_schema_stats_expiry = default");
+                }
+            }
+        });
+    }
+}
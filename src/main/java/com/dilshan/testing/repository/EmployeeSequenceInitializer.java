@@ -0,0 +1,46 @@
+package com.dilshan.testing.repository;
+
+import com.dilshan.testing.model.Employee;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the employee id sequence past the ids already in the table before the application takes traffic.
+ * <p>
+ * On MySQL the pooled sequence of Employee is the employees_seq table, which ddl-auto creates at 1 next to an
+ * employees table that may already hold ids from the IDENTITY column it replaced. Hibernate hands out the block
+ * of ids ending at the value it reads, so next_val is raised to at least max(id) plus the allocation size.
+ * GREATEST keeps a sequence that is already ahead, so the statement is safe on every start, also on instances
+ * starting together. Runs once all beans, the schema update included, are created and before the web server
+ * starts. Other databases have real sequences and are left alone.
+ */
+@Component
+@Profile("!reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class EmployeeSequenceInitializer implements SmartInitializingSingleton {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        this.seed();
+    }
+
+    public void seed() {
+        String database = this.jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"MySQL".equals(database)) {
+            log.debug("Employee id sequence not seeded on {}", database);
+            return;
+        }
+        this.jdbcTemplate.update("update employees_seq set next_val = greatest(next_val, "
+                + "(select coalesce(max(id), 0) + ? from employees))", Employee.ID_ALLOCATION_SIZE);
+        log.info("Employee id sequence at {}", this.jdbcTemplate.queryForObject("select next_val from employees_seq", Long.class));
+    }
+}
@@ -0,0 +1,192 @@
+package com.dilshan.testing.repository;
+
+import com.dilshan.testing.dto.EmployeeFilter;
+import com.dilshan.testing.dto.EmployeeSummary;
+import com.dilshan.testing.exception.InvalidRequest;
+import com.dilshan.testing.model.Employee;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Specifications of the dynamic employee query (GET /api/employees/query) and its keyset paging.
+ * <p>
+ * Every query must have at least one condition bounding a range on the leading column of an index (the primary
+ * key, uk_employees_email, idx_employees_last_first, idx_employees_first_name): an equality, a non-empty prefix
+ * or a range with both ends, so MySQL reads an index range instead of the whole table.
+ * Conditions on the other columns, the version, are only checked on the rows of that range. Sorting is free, the
+ * id is appended to make the order total so the sort values of the last row identify the position of the next page.
+ */
+public final class EmployeeSpecifications {
+
+    private static final Map<String, Class<?>> FIELDS = Map.of("id", Long.class, "firstName", String.class,
+            "lastName", String.class, "email", String.class, "version", Long.class);
+    private static final List<String> INDEXED_FIELDS = List.of("id", "email", "lastName", "firstName");
+    //The columns of EmployeeSummary, the cursor is taken from the returned rows
+    private static final List<String> SORT_FIELDS = List.of("id", "firstName", "lastName", "email");
+
+    private EmployeeSpecifications() {
+    }
+
+    /**
+     * @return all filters combined with and
+     * @throws InvalidRequest for an unknown field, a value of the wrong type, an empty prefix or when no filter
+     *                        bounds an index range
+     */
+    public static Specification<Employee> where(List<EmployeeFilter> filters) {
+        Specification<Employee> specification = Specification.where(null);
+        for (EmployeeFilter filter : filters) {
+            specification = specification.and(of(filter));
+        }
+        if (INDEXED_FIELDS.stream().noneMatch(field -> boundsIndex(field, filters))) {
+            throw new InvalidRequest(String.format("At least one filter must be an eq or prefix filter or a range with "
+                    + "both ends on an indexed field %s, other filters would read every row of the table", INDEXED_FIELDS));
+        }
+        return specification;
+    }
+
+    /**
+     * A range open at one end (id:ge:0) is a condition on the indexed column that may still cover the whole table.
+     */
+    private static boolean boundsIndex(String field, List<EmployeeFilter> filters) {
+        boolean lower = false;
+        boolean upper = false;
+        for (EmployeeFilter filter : filters) {
+            if (!filter.field().equals(field)) {
+                continue;
+            }
+            switch (filter.operator()) {
+                case EQ, PREFIX -> {
+                    return true;
+                }
+                case GT, GE -> lower = true;
+                case LT, LE -> upper = true;
+            }
+        }
+        return lower && upper;
+    }
+
+    /**
+     * @return sort with the id appended unless it is sorted on already
+     * @throws InvalidRequest for a field that is not sortable
+     */
+    public static Sort keysetSort(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!SORT_FIELDS.contains(order.getProperty())) {
+                throw new InvalidRequest(String.format("Cannot sort on %s, sortable fields are %s", order.getProperty(), SORT_FIELDS));
+            }
+        }
+        return sort.getOrderFor("id") == null ? sort.and(Sort.by("id")) : sort;
+    }
+
+    /**
+     * @param sort keyset sort, see {@link #keysetSort(Sort)}
+     * @param key  sort values of the last row of the previous page, in sort order
+     * @return rows after that row: (a > ?) or (a = ? and b > ?) or ..., comparisons flipped for descending orders
+     * @throws InvalidRequest when the key does not hold one value of the right type per sort order, a cursor
+     *                        edited by the client
+     */
+    @SuppressWarnings("unchecked")
+    public static Specification<Employee> after(Sort sort, List<String> key) {
+        List<Sort.Order> orders = sort.toList();
+        if (key.size() != orders.size()) {
+            throw new InvalidRequest(String.format("Cursor has %d sort values, the sort has %d", key.size(), orders.size()));
+        }
+        //Converted now, a bad value is a 400 before the query runs
+        List<Comparable> values = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            values.add(convert(orders.get(i).getProperty(), key.get(i)));
+        }
+        return (employee, query, criteriaBuilder) -> {
+            List<Predicate> alternatives = new ArrayList<>();
+            List<Predicate> equal = new ArrayList<>();
+            Predicate leadingBound = null;
+            for (int i = 0; i < orders.size(); i++) {
+                Sort.Order order = orders.get(i);
+                Expression<Comparable> path = employee.get(order.getProperty());
+                Comparable value = values.get(i);
+                List<Predicate> alternative = new ArrayList<>(equal);
+                alternative.add(order.isAscending() ? criteriaBuilder.greaterThan(path, value) : criteriaBuilder.lessThan(path, value));
+                alternatives.add(criteriaBuilder.and(alternative.toArray(Predicate[]::new)));
+                equal.add(criteriaBuilder.equal(path, value));
+                if (leadingBound == null) {
+                    //Redundant with the alternatives, but a plain range the optimizer can seek an index on
+                    leadingBound = order.isAscending()
+                            ? criteriaBuilder.greaterThanOrEqualTo(path, value) : criteriaBuilder.lessThanOrEqualTo(path, value);
+                }
+            }
+            return criteriaBuilder.and(leadingBound, criteriaBuilder.or(alternatives.toArray(Predicate[]::new)));
+        };
+    }
+
+    /**
+     * @return sort values of the row, the key of {@link #after(Sort, List)}
+     */
+    public static List<String> keyOf(EmployeeSummary employee, Sort sort) {
+        List<String> key = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            key.add(switch (order.getProperty()) {
+                case "id" -> String.valueOf(employee.id());
+                case "firstName" -> employee.firstName();
+                case "lastName" -> employee.lastName();
+                case "email" -> employee.email();
+                default -> throw new IllegalArgumentException("Not a sort field " + order.getProperty());
+            });
+        }
+        return key;
+    }
+
+    private static Specification<Employee> of(EmployeeFilter filter) {
+        if (!FIELDS.containsKey(filter.field())) {
+            throw new InvalidRequest(String.format("Unknown filter field %s, expected one of %s", filter.field(), new TreeSet<>(FIELDS.keySet())));
+        }
+        if (filter.operator() == EmployeeFilter.Operator.PREFIX) {
+            if (FIELDS.get(filter.field()) != String.class) {
+                throw new InvalidRequest(String.format("Prefix filter on a numeric field. %s", filter.field()));
+            }
+            if (filter.value().isEmpty()) {
+                //LIKE '%' matches every row
+                throw new InvalidRequest(String.format("Prefix filter value must not be empty. %s", filter.field()));
+            }
+            String pattern = escape(filter.value()) + "%";
+            return (employee, query, criteriaBuilder) -> criteriaBuilder.like(employee.get(filter.field()), pattern, '\\');
+        }
+        Comparable value = convert(filter.field(), filter.value());
+        return (employee, query, criteriaBuilder) -> compare(criteriaBuilder, employee.get(filter.field()), filter.operator(), value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Predicate compare(CriteriaBuilder criteriaBuilder, Expression<Comparable> path, EmployeeFilter.Operator operator,
+                                     Comparable value) {
+        return switch (operator) {
+            case EQ -> criteriaBuilder.equal(path, value);
+            case GT -> criteriaBuilder.greaterThan(path, value);
+            case GE -> criteriaBuilder.greaterThanOrEqualTo(path, value);
+            case LT -> criteriaBuilder.lessThan(path, value);
+            case LE -> criteriaBuilder.lessThanOrEqualTo(path, value);
+            case PREFIX -> throw new IllegalArgumentException("Prefix is not a comparison");
+        };
+    }
+
+    private static Comparable convert(String field, String value) {
+        if (FIELDS.get(field) != Long.class) {
+            return value;
+        }
+        try {
+            return Long.valueOf(value.strip());
+        } catch (NumberFormatException e) {
+            throw new InvalidRequest(String.format("%s must be a number. %s", field, value), e);
+        }
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
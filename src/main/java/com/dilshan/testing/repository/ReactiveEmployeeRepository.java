@@ -0,0 +1,246 @@
+package com.dilshan.testing.repository;
+
+import com.dilshan.testing.dto.EmployeePatch;
+import com.dilshan.testing.dto.EmployeeSummary;
+import com.dilshan.testing.model.Employee;
+import io.r2dbc.spi.Readable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * R2DBC access to the employees table of the JPA deployment, rows are mapped by hand and every
+ * result is a publisher that only pulls rows from the driver as they are requested downstream.
+ * <p>
+ * Ids come from the same employees_seq table Hibernate uses for its pooled optimizer: a claimed
+ * value v reserves the ids (v - allocation size, v], so both deployments can write to one database.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveEmployeeRepository {
+
+    private static final String EMPLOYEE_COLUMNS = "id, first_name, last_name, email";
+    private static final String EMPLOYEE_VERSIONED_COLUMNS = EMPLOYEE_COLUMNS + ", version";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator idTransaction;
+
+    private long nextId;
+    private long lastId = -1;
+
+    public ReactiveEmployeeRepository(DatabaseClient databaseClient, ReactiveTransactionManager transactionManager) {
+        this.databaseClient = databaseClient;
+        //Like Hibernate's table generator, a claimed block survives a rollback of the transaction that needed it
+        this.idTransaction = TransactionalOperator.create(transactionManager,
+                new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+    }
+
+    /**
+     * @param employee employee to insert, its id is ignored
+     * @return Mono of Employee with the allocated id
+     */
+    public Mono<Employee> insert(Employee employee) {
+        return this.nextId().flatMap(id -> this.databaseClient
+                .sql("INSERT INTO employees (" + EMPLOYEE_VERSIONED_COLUMNS + ") VALUES (:id, :firstName, :lastName, :email, 0)")
+                .bind("id", id)
+                .bind("firstName", employee.getFirstName())
+                .bind("lastName", employee.getLastName())
+                .bind("email", employee.getEmail())
+                .then()
+                .thenReturn(employee.toBuilder().id(id).build()));
+    }
+
+    /**
+     * @param employees employees to insert, their ids are ignored
+     * @return Mono of the number of rows inserted
+     * One multi-row INSERT, the statement MySQL's rewriteBatchedStatements builds for the JDBC batch
+     */
+    public Mono<Integer> insertAll(List<Employee> employees) {
+        if (employees.isEmpty()) {
+            return Mono.just(0);
+        }
+        return Flux.fromIterable(employees)
+                .concatMap(employee -> this.nextId().map(id -> employee.toBuilder().id(id).build()))
+                .collectList()
+                .flatMap(rows -> {
+                    StringJoiner values = new StringJoiner(", ");
+                    for (int i = 0; i < rows.size(); i++) {
+                        values.add(String.format("(:id%1$d, :firstName%1$d, :lastName%1$d, :email%1$d, 0)", i));
+                    }
+                    DatabaseClient.GenericExecuteSpec insert = this.databaseClient
+                            .sql("INSERT INTO employees (" + EMPLOYEE_VERSIONED_COLUMNS + ") VALUES " + values);
+                    for (int i = 0; i < rows.size(); i++) {
+                        Employee row = rows.get(i);
+                        insert = insert.bind("id" + i, row.getId())
+                                .bind("firstName" + i, row.getFirstName())
+                                .bind("lastName" + i, row.getLastName())
+                                .bind("email" + i, row.getEmail());
+                    }
+                    return insert.fetch().rowsUpdated().map(Long::intValue);
+                });
+    }
+
+    public Mono<Employee> findById(Long id) {
+        return this.databaseClient.sql("SELECT " + EMPLOYEE_VERSIONED_COLUMNS + " FROM employees WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .one();
+    }
+
+    public Mono<Employee> findByEmail(String email) {
+        return this.databaseClient.sql("SELECT " + EMPLOYEE_VERSIONED_COLUMNS + " FROM employees WHERE email = :email")
+                .bind("email", email)
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .one();
+    }
+
+    public Flux<Employee> findAll() {
+        return this.databaseClient.sql("SELECT " + EMPLOYEE_VERSIONED_COLUMNS + " FROM employees ORDER BY id")
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .all();
+    }
+
+    public Flux<EmployeeSummary> findAllSummaries() {
+        return this.databaseClient.sql("SELECT " + EMPLOYEE_COLUMNS + " FROM employees ORDER BY id")
+                .map(ReactiveEmployeeRepository::toSummary)
+                .all();
+    }
+
+    /**
+     * @param id    exclusive lower bound, the last id of the previous page
+     * @param limit maximum number of rows
+     * @return Flux of EmployeeSummary
+     * Keyset (seek) pagination on the primary key, same plan as the JPA findSummariesByIdGreaterThanOrderByIdAsc
+     */
+    public Flux<EmployeeSummary> findSummariesAfter(long id, int limit) {
+        return this.databaseClient.sql("SELECT " + EMPLOYEE_COLUMNS + " FROM employees WHERE id > :id ORDER BY id LIMIT :limit")
+                .bind("id", id)
+                .bind("limit", limit)
+                .map(ReactiveEmployeeRepository::toSummary)
+                .all();
+    }
+
+    /**
+     * @param lastName  string
+     * @param firstName string
+     * @param id        exclusive lower bound, the last id of the previous page
+     * @param limit     maximum number of rows
+     * @return Flux of EmployeeSummary
+     * Range scan of idx_employees_last_first, same plan as the JPA name search
+     */
+    public Flux<EmployeeSummary> findByNameAfter(String lastName, String firstName, long id, int limit) {
+        return this.databaseClient.sql("SELECT " + EMPLOYEE_COLUMNS + " FROM employees"
+                        + " WHERE last_name = :lastName AND first_name = :firstName AND id > :id ORDER BY id LIMIT :limit")
+                .bind("lastName", lastName)
+                .bind("firstName", firstName)
+                .bind("id", id)
+                .bind("limit", limit)
+                .map(ReactiveEmployeeRepository::toSummary)
+                .all();
+    }
+
+    /**
+     * @return Mono of the number of rows updated, 0 when no employee has the id or its version moved on
+     * Optimistic like the JPA merge, the row is only written when it still has the version that was read
+     */
+    public Mono<Long> update(Employee employee) {
+        return this.databaseClient.sql("UPDATE employees SET first_name = :firstName, last_name = :lastName, email = :email,"
+                        + " version = version + 1 WHERE id = :id AND version = :version")
+                .bind("firstName", employee.getFirstName())
+                .bind("lastName", employee.getLastName())
+                .bind("email", employee.getEmail())
+                .bind("id", employee.getId())
+                .bind("version", employee.getVersion())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * @return Mono of the number of rows updated, 0 when no employee has the id
+     * Single UPDATE setting only the supplied columns, like the JPA patch
+     */
+    public Mono<Long> patch(Long id, EmployeePatch patch) {
+        StringJoiner columns = new StringJoiner(", ");
+        columns.add("version = version + 1");
+        if (patch.firstName() != null) {
+            columns.add("first_name = :firstName");
+        }
+        if (patch.lastName() != null) {
+            columns.add("last_name = :lastName");
+        }
+        if (patch.email() != null) {
+            columns.add("email = :email");
+        }
+        DatabaseClient.GenericExecuteSpec update = this.databaseClient.sql("UPDATE employees SET " + columns + " WHERE id = :id")
+                .bind("id", id);
+        if (patch.firstName() != null) {
+            update = update.bind("firstName", patch.firstName());
+        }
+        if (patch.lastName() != null) {
+            update = update.bind("lastName", patch.lastName());
+        }
+        if (patch.email() != null) {
+            update = update.bind("email", patch.email());
+        }
+        return update.fetch().rowsUpdated();
+    }
+
+    /**
+     * @return Mono of the number of rows deleted, 0 when no employee has the id
+     */
+    public Mono<Long> deleteById(Long id) {
+        return this.databaseClient.sql("DELETE FROM employees WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            synchronized (this) {
+                if (this.nextId <= this.lastId) {
+                    return Mono.just(this.nextId++);
+                }
+            }
+            //Claims a whole block in one short transaction, concurrent claims each get their own block
+            return this.idTransaction.transactional(this.databaseClient
+                            .sql("UPDATE employees_seq SET next_val = next_val + " + Employee.ID_ALLOCATION_SIZE)
+                            .then()
+                            .then(this.databaseClient.sql("SELECT next_val FROM employees_seq")
+                                    .map(row -> row.get("next_val", Long.class) - Employee.ID_ALLOCATION_SIZE)
+                                    .one()))
+                    .map(claimed -> {
+                        long first = Math.max(1, claimed - Employee.ID_ALLOCATION_SIZE + 1);
+                        synchronized (this) {
+                            this.nextId = first + 1;
+                            this.lastId = claimed;
+                        }
+                        return first;
+                    });
+        });
+    }
+
+    private static Employee toEmployee(Readable row) {
+        return Employee.builder()
+                .id(row.get("id", Long.class))
+                .firstName(row.get("first_name", String.class))
+                .lastName(row.get("last_name", String.class))
+                .email(row.get("email", String.class))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+
+    private static EmployeeSummary toSummary(Readable row) {
+        return new EmployeeSummary(row.get("id", Long.class), row.get("first_name", String.class),
+                row.get("last_name", String.class), row.get("email", String.class));
+    }
+}
@@ -1,19 +1,64 @@
 package com.dilshan.testing.service;
 
+import com.dilshan.testing.dto.CursorPage;
+import com.dilshan.testing.dto.EmployeeCount;
+import com.dilshan.testing.dto.EmployeePatch;
+import com.dilshan.testing.dto.EmployeeSummary;
 import com.dilshan.testing.model.Employee;
+import org.springframework.data.domain.Sort;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface EmployeeService {
 
     Employee saveEmployee(Employee employee);
 
+    /**
+     * Inserts the employees in chunks, each chunk in its own transaction.
+     *
+     * @return number of employees inserted
+     * @throws com.dilshan.testing.exception.BatchCreateFailed when a chunk violates a constraint, reading the next
+     *                                                         employee fails or any other error stops the batch, with
+     *                                                         the number of employees the earlier chunks committed
+     */
+    int saveEmployees(Iterator<Employee> employees);
+
+    /**
+     * Inserts the employees whose email is not taken in one transaction. When that transaction fails, each of
+     * them is inserted on its own, so a row the database rejects does not fail the others.
+     *
+     * @return the outcome of each employee, in order: null when inserted (its generated id is set),
+     * ResourceAlreadyExists when its email is taken by an existing employee or an earlier one of the list,
+     * otherwise the exception that rejected its row
+     */
+    List<RuntimeException> saveNewEmployees(List<Employee> employees);
+
     List<Employee> getAllEmployees();
 
+    List<EmployeeSummary> getEmployeeSummaries();
+
+    CursorPage<EmployeeSummary> getEmployees(String cursor, Integer size);
+
+    CursorPage<EmployeeSummary> searchEmployees(String firstName, String lastName, String cursor, Integer size);
+
+    List<EmployeeSummary> searchEmployeesByPrefix(String prefix, Integer size);
+
+    CursorPage<EmployeeSummary> queryEmployees(List<String> filters, Sort sort, String cursor, Integer size);
+
+    void exportEmployees(Consumer<Employee> action);
+
+    EmployeeCount countEmployees(EmployeeCount.Accuracy accuracy);
+
     Optional<Employee> getEmployeeById(Long id);
 
+    Optional<Employee> getEmployeeByEmail(String email);
+
     Employee updateEmployee(Employee employee);
 
-    void deleteEmployee(Long id);
+    boolean patchEmployee(Long id, EmployeePatch patch);
+
+    boolean deleteEmployee(Long id);
 }
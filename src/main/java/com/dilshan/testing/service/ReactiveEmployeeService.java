@@ -0,0 +1,38 @@
+package com.dilshan.testing.service;
+
+import com.dilshan.testing.dto.CursorPage;
+import com.dilshan.testing.dto.EmployeePatch;
+import com.dilshan.testing.dto.EmployeeSummary;
+import com.dilshan.testing.model.Employee;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link EmployeeService}, an empty Mono stands for an empty Optional.
+ */
+public interface ReactiveEmployeeService {
+
+    Mono<Employee> saveEmployee(Employee employee);
+
+    Mono<Integer> saveEmployees(Flux<Employee> employees);
+
+    Flux<Employee> getAllEmployees();
+
+    Flux<EmployeeSummary> getEmployeeSummaries();
+
+    Mono<CursorPage<EmployeeSummary>> getEmployees(String cursor, Integer size);
+
+    Mono<CursorPage<EmployeeSummary>> searchEmployees(String firstName, String lastName, String cursor, Integer size);
+
+    Flux<Employee> exportEmployees();
+
+    Mono<Employee> getEmployeeById(Long id);
+
+    Mono<Employee> getEmployeeByEmail(String email);
+
+    Mono<Employee> updateEmployee(Employee employee);
+
+    Mono<Boolean> patchEmployee(Long id, EmployeePatch patch);
+
+    Mono<Boolean> deleteEmployee(Long id);
+}
@@ -1,57 +1,401 @@
 package com.dilshan.testing.service.impl;
 
-import com.dilshan.testing.exception.ResourceNotFound;
+import com.dilshan.testing.cache.EmployeeCache;
+import com.dilshan.testing.cache.EmployeeCounter;
+import com.dilshan.testing.cache.EmployeeExistenceFilter;
+import com.dilshan.testing.cache.EmployeeListSnapshot;
+import com.dilshan.testing.cache.EmployeeSearchIndex;
+import com.dilshan.testing.config.EmployeeProperties;
+import com.dilshan.testing.dto.CursorPage;
+import com.dilshan.testing.dto.EmployeeCount;
+import com.dilshan.testing.dto.EmployeeFilter;
+import com.dilshan.testing.dto.EmployeePatch;
+import com.dilshan.testing.dto.EmployeeSummary;
+import com.dilshan.testing.exception.BatchCreateFailed;
+import com.dilshan.testing.exception.InvalidRequest;
+import com.dilshan.testing.exception.ResourceAlreadyExists;
 import com.dilshan.testing.model.Employee;
 import com.dilshan.testing.repository.EmployeeRepository;
+import com.dilshan.testing.repository.EmployeeSpecifications;
 import com.dilshan.testing.service.EmployeeService;
+import com.dilshan.testing.util.CursorCodec;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.DataException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Profile("!reactive")
+@Timed(value = EmployeeServiceImpl.METRIC_NAME, histogram = true)
 @RequiredArgsConstructor
 @Slf4j
 public class EmployeeServiceImpl implements EmployeeService {
 
+    public static final String METRIC_NAME = "employees.service";
+
     private final EmployeeRepository employeeRepository;
+    private final EmployeeProperties employeeProperties;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final EmployeeCache employeeCache;
+    private final EmployeeExistenceFilter existenceFilter;
+    private final EmployeeListSnapshot listSnapshot;
+    private final EmployeeSearchIndex searchIndex;
+    private final EmployeeCounter employeeCounter;
 
     @Override
     public Employee saveEmployee(Employee employee) {
-        log.info("Save Employee: {}", employee);
-        Optional<Employee> existingEmployee = this.employeeRepository.findByEmail(employee.getEmail());
-        if (existingEmployee.isPresent()) {
-            log.info("Employee already exists with the email {}", employee.getEmail());
-            throw new ResourceNotFound(String.format("Employee already exists with given email. %s", employee.getEmail()));
+        log.debug("Save Employee: {}", employee);
+        //Single INSERT, the unique index on email rejects duplicates atomically
+        try {
+            Employee savedEmployee = this.employeeRepository.saveAndFlush(employee);
+            this.listSnapshot.bumpVersion();
+            this.employeeCounter.add(1);
+            this.employeeCache.evict(savedEmployee);
+            this.existenceFilter.add(savedEmployee);
+            this.searchIndex.add(savedEmployee);
+            return savedEmployee;
+        } catch (DataIntegrityViolationException e) {
+            if (!isDuplicateEmail(e)) {
+                throw e;
+            }
+            log.debug("Employee already exists with the email {}", employee.getEmail());
+            throw new ResourceAlreadyExists(String.format("Employee already exists with given email. %s", employee.getEmail()), e);
+        }
+    }
+
+    @Override
+    public int saveEmployees(Iterator<Employee> employees) {
+        EmployeeProperties.Batch batch = this.employeeProperties.getBatch();
+        log.debug("Save Employees in chunks of {}", batch.getChunkSize());
+        int saved = 0;
+        List<Employee> chunk = new ArrayList<>(batch.getChunkSize());
+        try {
+            while (employees.hasNext()) {
+                chunk.add(employees.next());
+                if (chunk.size() == batch.getChunkSize()) {
+                    saved += this.insertChunk(chunk, batch.getJdbcBatchSize());
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                saved += this.insertChunk(chunk, batch.getJdbcBatchSize());
+            }
+        } catch (RuntimeException e) {
+            //Constraint violations, but also a malformed element or a lost connection after some chunks committed
+            throw new BatchCreateFailed(saved, e);
+        }
+        return saved;
+    }
+
+    @Override
+    public List<RuntimeException> saveNewEmployees(List<Employee> employees) {
+        log.debug("Save {} new Employees", employees.size());
+        //One query for the whole list instead of a findByEmail per employee
+        Set<String> taken = new HashSet<>();
+        for (String email : this.employeeRepository.findExistingEmails(employees.stream().map(Employee::getEmail).toList())) {
+            taken.add(email.toLowerCase(Locale.ROOT));
+        }
+        List<RuntimeException> outcomes = new ArrayList<>(employees.size());
+        List<Employee> chunk = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            if (taken.add(employee.getEmail().toLowerCase(Locale.ROOT))) {
+                chunk.add(employee);
+                outcomes.add(null);
+            } else {
+                outcomes.add(new ResourceAlreadyExists(String.format("Employee already exists with given email. %s", employee.getEmail())));
+            }
+        }
+        if (chunk.isEmpty()) {
+            return outcomes;
+        }
+        try {
+            this.insertChunk(chunk, this.employeeProperties.getBatch().getJdbcBatchSize());
+        } catch (RuntimeException e) {
+            //The chunk was rolled back, one INSERT each isolates the rows that fail (an email taken after the query,
+            //a column the database rejects) from the others
+            log.debug("Chunk of {} new employees failed, saving one by one", chunk.size(), e);
+            for (int i = 0; i < employees.size(); i++) {
+                if (outcomes.get(i) == null) {
+                    outcomes.set(i, this.saveNewEmployee(employees.get(i)));
+                }
+            }
+        }
+        return outcomes;
+    }
+
+    /**
+     * @return null when saved, otherwise why it was not
+     */
+    private RuntimeException saveNewEmployee(Employee employee) {
+        employee.setId(null);
+        try {
+            this.saveEmployee(employee);
+            return null;
+        } catch (RuntimeException e) {
+            log.debug("New employee not saved: {}", employee.getEmail(), e);
+            return e;
         }
-        return this.employeeRepository.save(employee);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Employee> getAllEmployees() {
-        log.info("Get all employees...");
+        log.debug("Get all employees...");
         return this.employeeRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmployeeSummary> getEmployeeSummaries() {
+        log.debug("Get all employee summaries...");
+        return this.employeeRepository.findAllSummaries();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<EmployeeSummary> getEmployees(String cursor, Integer size) {
+        log.debug("Get employees page: cursor {} size {}", cursor, size);
+        int pageSize = this.resolvePageSize(size);
+        long afterId = cursor == null ? 0L : CursorCodec.decodeId(cursor);
+        //Fetch one extra row to find out whether there is a next page without a count query
+        List<EmployeeSummary> employees = this.employeeRepository.findSummariesByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize + 1));
+        return CursorPage.of(employees, pageSize, EmployeeSummary::id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<EmployeeSummary> searchEmployees(String firstName, String lastName, String cursor, Integer size) {
+        if (log.isDebugEnabled()) {
+            log.debug("Search employees: firstName {} lastName {} cursor {} size {}", firstName, lastName, cursor, size);
+        }
+        int pageSize = this.resolvePageSize(size);
+        long afterId = cursor == null ? 0L : CursorCodec.decodeId(cursor);
+        List<EmployeeSummary> employees = this.employeeRepository
+                .findByLastNameAndFirstNameAndIdGreaterThanOrderByIdAsc(lastName, firstName, afterId, Limit.of(pageSize + 1));
+        return CursorPage.of(employees, pageSize, EmployeeSummary::id);
+    }
+
+    @Override
+    public List<EmployeeSummary> searchEmployeesByPrefix(String prefix, Integer size) {
+        log.debug("Search employees by prefix: {} size {}", prefix, size);
+        String query = prefix == null ? "" : prefix.strip();
+        if (query.isEmpty()) {
+            throw new InvalidRequest("Search prefix must not be blank");
+        }
+        int limit = this.resolvePageSize(size);
+        if (this.searchIndex.isReady()) {
+            return this.searchIndex.search(query, limit);
+        }
+        //Index switched off or still loading, one index range per field instead of an OR no index can serve. The
+        //first limit rows of each field contain the first limit of the merged order
+        List<EmployeeSummary> candidates = new ArrayList<>(3 * limit);
+        candidates.addAll(this.employeeRepository.findSummariesByFirstNameStartingWithOrderByFirstNameAscIdAsc(query, Limit.of(limit)));
+        candidates.addAll(this.employeeRepository.findSummariesByLastNameStartingWithOrderByLastNameAscIdAsc(query, Limit.of(limit)));
+        candidates.addAll(this.employeeRepository.findSummariesByEmailStartingWithOrderByEmailAscIdAsc(query, Limit.of(limit)));
+        return EmployeeSearchIndex.rank(query, candidates, limit);
+    }
+
+    @Override
+    public CursorPage<EmployeeSummary> queryEmployees(List<String> filters, Sort sort, String cursor, Integer size) {
+        log.debug("Query employees: filters {} sort {} cursor {} size {}", filters, sort, cursor, size);
+        int pageSize = this.resolvePageSize(size);
+        Specification<Employee> specification = EmployeeSpecifications.where(filters.stream().map(EmployeeFilter::parse).toList());
+        Sort keysetSort = EmployeeSpecifications.keysetSort(sort);
+        String sortKey = keysetSort.toString();
+        if (cursor != null) {
+            specification = specification.and(EmployeeSpecifications.after(keysetSort, CursorCodec.decodeKeyset(cursor, sortKey)));
+        }
+        List<EmployeeSummary> employees = this.employeeRepository.findSummaries(specification, keysetSort, Limit.of(pageSize + 1));
+        return CursorPage.ofKeyset(employees, pageSize,
+                employee -> CursorCodec.encodeKeyset(sortKey, EmployeeSpecifications.keyOf(employee, keysetSort)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportEmployees(Consumer<Employee> action) {
+        log.debug("Export all employees...");
+        try (Stream<Employee> employees = this.employeeRepository.streamAll()) {
+            employees.forEach(employee -> {
+                action.accept(employee);
+                //Drop the row from the persistence context so heap use stays flat for the whole scan
+                this.entityManager.detach(employee);
+            });
+        }
+    }
+
+    @Override
+    public EmployeeCount countEmployees(EmployeeCount.Accuracy accuracy) {
+        log.debug("Count employees: {}", accuracy);
+        if (accuracy == EmployeeCount.Accuracy.ESTIMATED) {
+            Long estimate = this.employeeRepository.estimateCount();
+            if (estimate != null) {
+                return new EmployeeCount(estimate, EmployeeCount.Accuracy.ESTIMATED);
+            }
+        }
+        if (this.employeeCounter.isLoaded()) {
+            return new EmployeeCount(this.employeeCounter.get(), EmployeeCount.Accuracy.EXACT);
+        }
+        //Writes may bypass this instance, only a COUNT(*) is exact
+        return new EmployeeCount(this.employeeRepository.count(), EmployeeCount.Accuracy.EXACT);
+    }
+
     @Override
     public Optional<Employee> getEmployeeById(Long id) {
-        log.info("Get employee by id: {}", id);
+        log.debug("Get employee by id: {}", id);
         /*this.employeeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFound(String.format("Employee not exists for id. %d", id)));*/
-        return this.employeeRepository.findById(id);
+        if (!this.existenceFilter.mightContainId(id)) {
+            return Optional.empty();
+        }
+        return this.employeeCache.getById(id, this.employeeRepository::findById);
+    }
+
+    @Override
+    public Optional<Employee> getEmployeeByEmail(String email) {
+        log.debug("Get employee by email: {}", email);
+        if (!this.existenceFilter.mightContainEmail(email)) {
+            return Optional.empty();
+        }
+        return this.employeeCache.getByEmail(email, this.employeeRepository::findByEmail, this.employeeRepository::findById);
     }
 
     @Override
     public Employee updateEmployee(Employee employee) {
-        log.info("Update Employee: {}", employee);
-        return this.employeeRepository.save(employee);
+        log.debug("Update Employee: {}", employee);
+        Employee updatedEmployee;
+        try {
+            //The merge only writes when the row still has the version that was read, no row lock is taken
+            updatedEmployee = this.employeeRepository.save(employee);
+        } catch (OptimisticLockingFailureException e) {
+            //Another write got in first, the cached copy is likely behind it
+            this.employeeCache.evict(employee.getId());
+            throw e;
+        }
+        this.listSnapshot.bumpVersion();
+        this.employeeCache.evict(updatedEmployee);
+        this.existenceFilter.add(updatedEmployee);
+        this.searchIndex.add(updatedEmployee);
+        return updatedEmployee;
+    }
+
+    @Override
+    public boolean patchEmployee(Long id, EmployeePatch patch) {
+        log.debug("Patch Employee by id: {} Patch: {}", id, patch);
+        if (patch.isEmpty()) {
+            throw new InvalidRequest(String.format("Nothing to update for employee. %d", id));
+        }
+        boolean updated = this.employeeRepository.patch(id, patch) > 0;
+        if (updated) {
+            this.listSnapshot.bumpVersion();
+            this.employeeCache.evict(id);
+            if (patch.email() != null) {
+                this.existenceFilter.add(Employee.builder().id(id).email(patch.email()).build());
+            }
+            this.searchIndex.patch(id, patch);
+        }
+        return updated;
     }
 
     @Override
-    public void deleteEmployee(Long id) {
-        log.info("Delete Employee by id: {}", id);
-        this.employeeRepository.deleteById(id);
+    public boolean deleteEmployee(Long id) {
+        log.debug("Delete Employee by id: {}", id);
+        boolean deleted = this.employeeRepository.deleteEmployeeById(id) > 0;
+        if (deleted) {
+            this.listSnapshot.bumpVersion();
+            this.employeeCounter.add(-1);
+            this.searchIndex.remove(id);
+        }
+        this.employeeCache.evict(id);
+        return deleted;
+    }
+
+    /**
+     * Inserts one chunk in its own transaction. The inserts are flushed as JDBC batches and the
+     * persistence context is cleared afterwards, so memory does not grow with the size of the load.
+     */
+    private int insertChunk(List<Employee> chunk, int jdbcBatchSize) {
+        try {
+            this.transactionTemplate.executeWithoutResult(status -> {
+                this.entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+                for (Employee employee : chunk) {
+                    //Bulk create never updates, ids always come from the sequence
+                    employee.setId(null);
+                    this.entityManager.persist(employee);
+                    this.existenceFilter.add(employee);
+                }
+                this.entityManager.flush();
+                this.entityManager.clear();
+            });
+        } catch (RuntimeException e) {
+            throw translateChunkFailure(e);
+        }
+        //After the commit, a reader that took the old version may still load the table without this chunk
+        this.listSnapshot.bumpVersion();
+        this.employeeCounter.add(chunk.size());
+        //The ids were assigned by the flush, the rows are only searchable once committed
+        chunk.forEach(this.searchIndex::add);
+        return chunk.size();
+    }
+
+    /**
+     * The explicit flush throws Hibernate's exceptions, which no repository proxy translates.
+     */
+    private static RuntimeException translateChunkFailure(RuntimeException e) {
+        if (isDuplicateEmail(e)) {
+            return new ResourceAlreadyExists("Employee already exists with an email of the batch.", e);
+        }
+        if (e instanceof ConstraintViolationException || e instanceof DataException) {
+            //Null or too long columns
+            return new DataIntegrityViolationException(NestedExceptionUtils.getMostSpecificCause(e).getMessage(), e);
+        }
+        if (e instanceof PersistenceException persistenceException) {
+            DataAccessException translated = EntityManagerFactoryUtils.convertJpaAccessExceptionIfPossible(persistenceException);
+            return translated != null ? translated : e;
+        }
+        return e;
+    }
+
+    private static boolean isDuplicateEmail(RuntimeException e) {
+        //Also unwraps the Hibernate exception of an explicit flush, which is not translated to a DataAccessException
+        String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(Employee.EMAIL_CONSTRAINT);
+    }
+
+    private int resolvePageSize(Integer size) {
+        EmployeeProperties.Page page = this.employeeProperties.getPage();
+        if (size == null) {
+            return page.getDefaultSize();
+        }
+        if (size < 1) {
+            throw new InvalidRequest(String.format("Page size must be positive. %d", size));
+        }
+        return Math.min(size, page.getMaxSize());
     }
 }
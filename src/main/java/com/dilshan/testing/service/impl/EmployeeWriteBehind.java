@@ -0,0 +1,225 @@
+package com.dilshan.testing.service.impl;
+
+import com.dilshan.testing.config.EmployeeProperties;
+import com.dilshan.testing.dto.EmployeeSubmission;
+import com.dilshan.testing.exception.InvalidRequest;
+import com.dilshan.testing.exception.ResourceAlreadyExists;
+import com.dilshan.testing.model.Employee;
+import com.dilshan.testing.service.EmployeeService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind queue of POST /api/employees with Prefer: respond-async. A submission is validated, put in a
+ * bounded queue and answered with 202 Accepted and a tracking id. One writer thread drains the queue in
+ * batches through {@link EmployeeService#saveNewEmployees(List)}, so a burst of sign-ups costs one existence
+ * query and one batched multi-row INSERT per batch instead of a pooled connection per request.
+ * <p>
+ * A full queue rejects new submissions rather than blocking request threads. The outcome of every submission
+ * is kept for a while for GET /api/employees/submissions/{id}. The queue is written on shutdown, but only
+ * lives in memory, submissions not written yet are lost on a crash.
+ */
+@Component
+@Profile("!reactive")
+@Slf4j
+public class EmployeeWriteBehind implements SmartLifecycle, MeterBinder {
+
+    private final EmployeeService employeeService;
+    private final EmployeeProperties.WriteBehind properties;
+    private final BlockingQueue<Submission> queue;
+    private final Cache<String, EmployeeSubmission> submissions;
+    private volatile boolean running;
+    private Thread writer;
+
+    public EmployeeWriteBehind(EmployeeService employeeService, EmployeeProperties employeeProperties) {
+        this.employeeService = employeeService;
+        this.properties = employeeProperties.getWriteBehind();
+        this.queue = this.properties.isEnabled() ? new ArrayBlockingQueue<>(this.properties.getQueueCapacity()) : null;
+        this.submissions = Caffeine.newBuilder()
+                .maximumSize(this.properties.getStatusMaximumSize())
+                .expireAfterWrite(this.properties.getStatusTimeToLive())
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return this.queue != null;
+    }
+
+    /**
+     * @return the queued submission, empty when the queue is full
+     * @throws InvalidRequest when a name or the email is missing or longer than its column, which the INSERT would
+     *                         reject after the 202
+     */
+    public Optional<EmployeeSubmission> submit(Employee employee) {
+        if (this.queue == null) {
+            throw new IllegalStateException("Employee write-behind is not enabled");
+        }
+        if (isBlank(employee.getFirstName()) || isBlank(employee.getLastName()) || isBlank(employee.getEmail())) {
+            throw new InvalidRequest(String.format("First name, last name and email are required. %s", employee.getEmail()));
+        }
+        if (isTooLong(employee.getFirstName()) || isTooLong(employee.getLastName()) || isTooLong(employee.getEmail())) {
+            throw new InvalidRequest(String.format("First name, last name and email must be at most %d characters. %s",
+                    Employee.COLUMN_LENGTH, employee.getEmail()));
+        }
+        String id = UUID.randomUUID().toString();
+        EmployeeSubmission queued = EmployeeSubmission.queued(id);
+        //Recorded before the offer, the writer may be done with it before this method returns
+        this.submissions.put(id, queued);
+        //Always a new employee, a submitted id would turn the INSERT into an update
+        if (!this.queue.offer(new Submission(id, employee.toBuilder().id(null).version(0).build()))) {
+            this.submissions.invalidate(id);
+            return Optional.empty();
+        }
+        return Optional.of(queued);
+    }
+
+    public Optional<EmployeeSubmission> getSubmission(String id) {
+        return Optional.ofNullable(this.submissions.getIfPresent(id));
+    }
+
+    private void drain() {
+        List<Submission> batch = new ArrayList<>(this.properties.getBatchSize());
+        while (this.running || !this.queue.isEmpty()) {
+            try {
+                this.fill(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                this.write(batch);
+                return;
+            }
+            if (!batch.isEmpty()) {
+                this.write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Waits for a first submission, then up to max delay for the batch to fill.
+     */
+    private void fill(List<Submission> batch) throws InterruptedException {
+        Submission first = this.queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + this.properties.getMaxDelay().toNanos();
+        while (batch.size() < this.properties.getBatchSize()) {
+            if (this.queue.drainTo(batch, this.properties.getBatchSize() - batch.size()) > 0) {
+                continue;
+            }
+            Submission next = this.queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void write(List<Submission> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<RuntimeException> outcomes;
+        try {
+            outcomes = this.employeeService.saveNewEmployees(batch.stream().map(Submission::employee).toList());
+        } catch (RuntimeException e) {
+            //Failed before any row was inserted, the existence query
+            log.error("Could not save {} queued employees", batch.size(), e);
+            for (Submission submission : batch) {
+                this.submissions.put(submission.id(), EmployeeSubmission.failed(submission.id(),
+                        "Employee could not be saved, submit it again"));
+            }
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            Submission submission = batch.get(i);
+            this.submissions.put(submission.id(), outcome(submission, outcomes.get(i)));
+        }
+    }
+
+    private static EmployeeSubmission outcome(Submission submission, RuntimeException failure) {
+        if (failure == null) {
+            return EmployeeSubmission.created(submission.id(), submission.employee().getId());
+        }
+        if (failure instanceof ResourceAlreadyExists) {
+            return EmployeeSubmission.rejected(submission.id(), failure.getMessage());
+        }
+        //Rejected by the database on its own, resubmitting the same employee fails again
+        return EmployeeSubmission.failed(submission.id(), "Employee could not be saved");
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static boolean isTooLong(String value) {
+        return value.codePointCount(0, value.length()) > Employee.COLUMN_LENGTH;
+    }
+
+    @Override
+    public void start() {
+        this.running = true;
+        if (this.queue != null) {
+            this.writer = Thread.ofPlatform().name("employee-write-behind").daemon().start(this::drain);
+        }
+    }
+
+    @Override
+    public void stop() {
+        this.running = false;
+        if (this.writer == null) {
+            return;
+        }
+        try {
+            this.writer.join(this.properties.getShutdownTimeout());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (this.writer.isAlive()) {
+            log.warn("Employee write-behind stopped with {} employees not saved", this.queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.running;
+    }
+
+    /**
+     * Started before and stopped after the web server (DEFAULT_PHASE - 2048), no submission arrives once the
+     * queue is drained for the shutdown.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (this.queue != null) {
+            Gauge.builder("employees.write.behind.queue", this.queue, Collection::size)
+                    .description("Submitted employees waiting for the writer")
+                    .register(registry);
+        }
+    }
+
+    private record Submission(String id, Employee employee) {
+    }
+}
@@ -0,0 +1,158 @@
+package com.dilshan.testing.service.impl;
+
+import com.dilshan.testing.config.EmployeeProperties;
+import com.dilshan.testing.dto.CursorPage;
+import com.dilshan.testing.dto.EmployeePatch;
+import com.dilshan.testing.dto.EmployeeSummary;
+import com.dilshan.testing.exception.InvalidRequest;
+import com.dilshan.testing.exception.ResourceAlreadyExists;
+import com.dilshan.testing.model.Employee;
+import com.dilshan.testing.repository.ReactiveEmployeeRepository;
+import com.dilshan.testing.service.ReactiveEmployeeService;
+import com.dilshan.testing.util.CursorCodec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveEmployeeServiceImpl implements ReactiveEmployeeService {
+
+    private final ReactiveEmployeeRepository employeeRepository;
+    private final EmployeeProperties employeeProperties;
+    private final TransactionalOperator transactionalOperator;
+
+    @Override
+    public Mono<Employee> saveEmployee(Employee employee) {
+        log.debug("Save Employee: {}", employee);
+        //Single INSERT, the unique index on email rejects duplicates atomically
+        return this.employeeRepository.insert(employee)
+                .onErrorMap(ReactiveEmployeeServiceImpl::isDuplicateEmail, e -> new ResourceAlreadyExists(
+                        String.format("Employee already exists with given email. %s", employee.getEmail()), e));
+    }
+
+    @Override
+    public Mono<Integer> saveEmployees(Flux<Employee> employees) {
+        EmployeeProperties.Batch batch = this.employeeProperties.getBatch();
+        log.debug("Save Employees in chunks of {}", batch.getChunkSize());
+        //Only one chunk is buffered at a time, the body is read from the socket as the chunks are committed
+        return employees.buffer(batch.getChunkSize())
+                .concatMap(chunk -> Flux.fromIterable(chunk)
+                        .buffer(batch.getJdbcBatchSize())
+                        .concatMap(this.employeeRepository::insertAll)
+                        .reduce(0, Integer::sum)
+                        .as(this.transactionalOperator::transactional))
+                .reduce(0, Integer::sum);
+    }
+
+    @Override
+    public Flux<Employee> getAllEmployees() {
+        log.debug("Get all employees...");
+        return this.employeeRepository.findAll();
+    }
+
+    @Override
+    public Flux<EmployeeSummary> getEmployeeSummaries() {
+        log.debug("Get all employee summaries...");
+        return this.employeeRepository.findAllSummaries();
+    }
+
+    @Override
+    public Mono<CursorPage<EmployeeSummary>> getEmployees(String cursor, Integer size) {
+        log.debug("Get employees page: cursor {} size {}", cursor, size);
+        return Mono.defer(() -> {
+            int pageSize = this.resolvePageSize(size);
+            long afterId = cursor == null ? 0L : CursorCodec.decodeId(cursor);
+            //Fetch one extra row to find out whether there is a next page without a count query
+            return this.employeeRepository.findSummariesAfter(afterId, pageSize + 1)
+                    .collectList()
+                    .map(employees -> CursorPage.of(employees, pageSize, EmployeeSummary::id));
+        });
+    }
+
+    @Override
+    public Mono<CursorPage<EmployeeSummary>> searchEmployees(String firstName, String lastName, String cursor, Integer size) {
+        if (log.isDebugEnabled()) {
+            log.debug("Search employees: firstName {} lastName {} cursor {} size {}", firstName, lastName, cursor, size);
+        }
+        return Mono.defer(() -> {
+            int pageSize = this.resolvePageSize(size);
+            long afterId = cursor == null ? 0L : CursorCodec.decodeId(cursor);
+            return this.employeeRepository.findByNameAfter(lastName, firstName, afterId, pageSize + 1)
+                    .collectList()
+                    .map(employees -> CursorPage.of(employees, pageSize, EmployeeSummary::id));
+        });
+    }
+
+    @Override
+    public Flux<Employee> exportEmployees() {
+        log.debug("Export all employees...");
+        return this.employeeRepository.findAll();
+    }
+
+    @Override
+    public Mono<Employee> getEmployeeById(Long id) {
+        log.debug("Get employee by id: {}", id);
+        return this.employeeRepository.findById(id);
+    }
+
+    @Override
+    public Mono<Employee> getEmployeeByEmail(String email) {
+        log.debug("Get employee by email: {}", email);
+        return this.employeeRepository.findByEmail(email);
+    }
+
+    @Override
+    public Mono<Employee> updateEmployee(Employee employee) {
+        log.debug("Update Employee: {}", employee);
+        //No row means another write got in between the read and this update, like a stale JPA merge
+        return this.employeeRepository.update(employee).flatMap(updated -> updated > 0
+                ? Mono.just(employee.toBuilder().version(employee.getVersion() + 1).build())
+                : Mono.error(new OptimisticLockingFailureException(
+                        String.format("Employee was modified concurrently. %d", employee.getId()))));
+    }
+
+    @Override
+    public Mono<Boolean> patchEmployee(Long id, EmployeePatch patch) {
+        log.debug("Patch Employee by id: {} Patch: {}", id, patch);
+        if (patch.isEmpty()) {
+            return Mono.error(new InvalidRequest(String.format("Nothing to update for employee. %d", id)));
+        }
+        return this.employeeRepository.patch(id, patch).map(updated -> updated > 0);
+    }
+
+    @Override
+    public Mono<Boolean> deleteEmployee(Long id) {
+        log.debug("Delete Employee by id: {}", id);
+        return this.employeeRepository.deleteById(id).map(deleted -> deleted > 0);
+    }
+
+    private static boolean isDuplicateEmail(Throwable e) {
+        if (!(e instanceof DataIntegrityViolationException violation)) {
+            return false;
+        }
+        String message = violation.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(Employee.EMAIL_CONSTRAINT);
+    }
+
+    private int resolvePageSize(Integer size) {
+        EmployeeProperties.Page page = this.employeeProperties.getPage();
+        if (size == null) {
+            return page.getDefaultSize();
+        }
+        if (size < 1) {
+            throw new InvalidRequest(String.format("Page size must be positive. %d", size));
+        }
+        return Math.min(size, page.getMaxSize());
+    }
+}
@@ -0,0 +1,119 @@
+package com.dilshan.testing.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe Bloom filter over longs and strings. Answers "definitely absent" or "maybe present",
+ * it never gives a false negative for a value that was put. Values cannot be removed.
+ * <p>
+ * Bit positions come from double hashing (h1 + i * h2) of two independent 64 bit hashes, which is as
+ * good as k independent hash functions for a Bloom filter.
+ */
+public class BloomFilter {
+
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashFunctions;
+    private final LongAdder bitCount = new LongAdder();
+
+    public BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        if (expectedInsertions < 1 || falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException(String.format("Invalid Bloom filter sizing. %d %f",
+                    expectedInsertions, falsePositiveProbability));
+        }
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        this.words = new AtomicLongArray(Math.toIntExact((bits + 63) / 64));
+        this.bitSize = this.words.length() * 64L;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bits / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(long value) {
+        long hash = mix(value);
+        this.put(hash, mix(hash ^ SEED));
+    }
+
+    public void put(CharSequence value) {
+        long hash = hash(value);
+        this.put(hash, mix(hash ^ SEED));
+    }
+
+    public boolean mightContain(long value) {
+        long hash = mix(value);
+        return this.mightContain(hash, mix(hash ^ SEED));
+    }
+
+    public boolean mightContain(CharSequence value) {
+        long hash = hash(value);
+        return this.mightContain(hash, mix(hash ^ SEED));
+    }
+
+    /**
+     * @return probability that mightContain answers true for a value that was never put, given the current fill
+     */
+    public double expectedFalsePositiveProbability() {
+        return Math.pow((double) this.bitCount.sum() / this.bitSize, this.hashFunctions);
+    }
+
+    public long memoryBytes() {
+        return this.words.length() * (long) Long.BYTES;
+    }
+
+    private void put(long hash1, long hash2) {
+        long combined = hash1;
+        for (int i = 0; i < this.hashFunctions; i++) {
+            long index = (combined & Long.MAX_VALUE) % this.bitSize;
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            do {
+                current = this.words.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!this.words.compareAndSet(word, current, current | mask));
+            if ((current & mask) == 0) {
+                this.bitCount.increment();
+            }
+            combined += hash2;
+        }
+    }
+
+    private boolean mightContain(long hash1, long hash2) {
+        long combined = hash1;
+        for (int i = 0; i < this.hashFunctions; i++) {
+            long index = (combined & Long.MAX_VALUE) % this.bitSize;
+            if ((this.words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+            combined += hash2;
+        }
+        return true;
+    }
+
+    /**
+     * FNV-1a over the UTF-16 chars, finished with the MurmurHash3 mixer to spread the bits.
+     */
+    private static long hash(CharSequence value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * MurmurHash3 fmix64 finalizer.
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb53a185ec4c1L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
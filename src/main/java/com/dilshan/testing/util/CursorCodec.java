@@ -0,0 +1,76 @@
+package com.dilshan.testing.util;
+
+import com.dilshan.testing.exception.InvalidRequest;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Encodes the keyset position of a listing into an opaque continuation token.
+ * Clients must treat the token as a black box, the format may change.
+ */
+public final class CursorCodec {
+
+    private static final String PREFIX = "v1:";
+    private static final String KEYSET_PREFIX = "k1:";
+
+    private CursorCodec() {
+    }
+
+    public static String encodeId(long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static long decodeId(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            if (!decoded.startsWith(PREFIX)) {
+                throw new InvalidRequest(String.format("Invalid cursor. %s", cursor));
+            }
+            return Long.parseLong(decoded.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequest(String.format("Invalid cursor. %s", cursor), e);
+        }
+    }
+
+    /**
+     * @param sort sort the key belongs to, a cursor is only valid for the same sort
+     * @param key  sort values of the last row of a page
+     */
+    public static String encodeKeyset(String sort, List<String> key) {
+        StringBuilder cursor = new StringBuilder(KEYSET_PREFIX).append(URLEncoder.encode(sort, StandardCharsets.UTF_8));
+        for (String value : key) {
+            cursor.append(',').append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the key of a cursor made by {@link #encodeKeyset(String, List)} for the same sort
+     */
+    public static List<String> decodeKeyset(String cursor, String sort) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(KEYSET_PREFIX)) {
+                throw new InvalidRequest(String.format("Invalid cursor. %s", cursor));
+            }
+            //-1 keeps trailing empty values
+            String[] parts = decoded.substring(KEYSET_PREFIX.length()).split(",", -1);
+            if (!URLDecoder.decode(parts[0], StandardCharsets.UTF_8).equals(sort)) {
+                throw new InvalidRequest(String.format("Cursor belongs to another sort. %s", cursor));
+            }
+            List<String> key = new ArrayList<>(parts.length - 1);
+            for (int i = 1; i < parts.length; i++) {
+                key.add(URLDecoder.decode(parts[i], StandardCharsets.UTF_8));
+            }
+            return key;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequest(String.format("Invalid cursor. %s", cursor), e);
+        }
+    }
+}
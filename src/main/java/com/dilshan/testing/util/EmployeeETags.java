@@ -0,0 +1,112 @@
+package com.dilshan.testing.util;
+
+import com.dilshan.testing.dto.CursorPage;
+import com.dilshan.testing.dto.EmployeeSummary;
+import com.dilshan.testing.model.Employee;
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Strong entity tags of the employee representations, computed from the data instead of the serialized
+ * body, so a request with a matching If-None-Match is answered before anything is written.
+ * <p>
+ * A single employee is tagged by id and version, every write bumps the version. A listing is tagged by a
+ * 64-bit FNV-1a hash over the fields of its rows (and the next cursor of a page), listings carry no version.
+ * These are the tags of the JSON body, {@link #of(String, MediaType)} derives the tag of another format.
+ */
+public final class EmployeeETags {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private EmployeeETags() {
+    }
+
+    public static String of(Employee employee) {
+        return "\"" + employee.getId() + "-" + employee.getVersion() + "\"";
+    }
+
+    /**
+     * @param ifMatch value of an If-Match header
+     * @param id      id of the employee the request targets
+     * @return versions of that employee the header accepts, empty when none of its tags can match. Tags of every
+     * format of the employee count, they name the same version. Weak tags never match (If-Match compares
+     * strongly), tags of other employees are ignored. Callers handle "*" first.
+     */
+    public static List<Long> versions(String ifMatch, Long id) {
+        String prefix = "\"" + id + "-";
+        List<Long> versions = new ArrayList<>();
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+                String version = tag.substring(prefix.length(), tag.length() - 1);
+                int format = version.indexOf('-');
+                try {
+                    versions.add(Long.parseLong(format < 0 ? version : version.substring(0, format)));
+                } catch (NumberFormatException e) {
+                    //Not one of our tags, it cannot match
+                }
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * @param eTag      tag computed from the data, the tag of the JSON representation
+     * @param mediaType format the body is written in
+     * @return tag of the body in mediaType. A strong tag identifies the bytes on the wire, the CBOR, Smile and
+     * Protobuf bodies of the same data get their own tags (x-jackson-smile becomes "...-smile")
+     */
+    public static String of(String eTag, MediaType mediaType) {
+        if (MediaType.APPLICATION_JSON.isCompatibleWith(mediaType)) {
+            return eTag;
+        }
+        String subtype = mediaType.getSubtype();
+        return eTag.substring(0, eTag.length() - 1) + "-" + subtype.substring(subtype.lastIndexOf('-') + 1) + "\"";
+    }
+
+    public static String of(List<EmployeeSummary> employees) {
+        return quote(hash(FNV_OFFSET_BASIS, employees));
+    }
+
+    public static String of(CursorPage<EmployeeSummary> page) {
+        return quote(hash(hash(FNV_OFFSET_BASIS, page.content()), page.nextCursor()));
+    }
+
+    private static long hash(long hash, List<EmployeeSummary> employees) {
+        for (EmployeeSummary employee : employees) {
+            hash = hash(hash, employee.id());
+            hash = hash(hash, employee.firstName());
+            hash = hash(hash, employee.lastName());
+            hash = hash(hash, employee.email());
+        }
+        return hash;
+    }
+
+    private static long hash(long hash, long value) {
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            hash = (hash ^ ((value >>> shift) & 0xff)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static long hash(long hash, String value) {
+        if (value == null) {
+            return hash(hash, -1L);
+        }
+        //Length first, so ("ab", "c") and ("a", "bc") hash differently
+        hash = hash(hash, value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static String quote(long hash) {
+        return "\"" + Long.toHexString(hash) + "\"";
+    }
+}
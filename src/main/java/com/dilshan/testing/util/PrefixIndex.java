@@ -0,0 +1,147 @@
+package com.dilshan.testing.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe index from case-insensitive string terms to the long ids carrying them, answering which ids
+ * have a term starting with a prefix. Terms are kept sorted, so a lookup is one O(log n) seek to the first
+ * matching term and a walk that stops at the limit, however many terms the index holds.
+ * <p>
+ * Each term maps to a sorted array of its ids. Ids mostly arrive in ascending order (a scan by id, new rows
+ * from the sequence), which appends to the array.
+ */
+public class PrefixIndex {
+
+    private final ConcurrentSkipListMap<String, Postings> terms = new ConcurrentSkipListMap<>();
+    private final LongAdder termCount = new LongAdder();
+
+    /**
+     * Moves an id from its old terms to its new ones, terms in both lists (case-insensitively) are left alone.
+     * Null and empty terms are skipped. Updates of the same id must not run concurrently.
+     */
+    public void update(long id, Collection<String> oldTerms, Collection<String> terms) {
+        Set<String> keys = new HashSet<>();
+        for (String term : terms) {
+            if (term != null && !term.isEmpty()) {
+                keys.add(normalize(term));
+            }
+        }
+        for (String term : oldTerms) {
+            if (term != null && !term.isEmpty() && !keys.contains(normalize(term))) {
+                this.remove(normalize(term), id);
+            }
+        }
+        for (String key : keys) {
+            this.add(key, id);
+        }
+    }
+
+    /**
+     * @param prefix case-insensitive prefix of the terms
+     * @param limit  maximum number of ids
+     * @return distinct ids with a term starting with prefix, ordered by term and then by id
+     */
+    public long[] search(String prefix, int limit) {
+        String from = normalize(prefix);
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Map.Entry<String, Postings> entry : this.terms.tailMap(from).entrySet()) {
+            if (ids.size() >= limit || !entry.getKey().startsWith(from)) {
+                break;
+            }
+            Postings postings = entry.getValue();
+            synchronized (postings) {
+                for (int i = 0; i < postings.size && ids.size() < limit; i++) {
+                    ids.add(postings.ids[i]);
+                }
+            }
+        }
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    public long termCount() {
+        return this.termCount.sum();
+    }
+
+    private void add(String key, long id) {
+        while (true) {
+            Postings postings = this.terms.computeIfAbsent(key, k -> new Postings());
+            synchronized (postings) {
+                //An emptied array is being unlinked by remove, put the id under a fresh one
+                if (!postings.removed) {
+                    if (postings.size == 0) {
+                        this.termCount.increment();
+                    }
+                    postings.add(id);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void remove(String key, long id) {
+        Postings postings = this.terms.get(key);
+        if (postings == null) {
+            return;
+        }
+        synchronized (postings) {
+            if (postings.remove(id) && postings.size == 0) {
+                postings.removed = true;
+                this.terms.remove(key, postings);
+                this.termCount.decrement();
+            }
+        }
+    }
+
+    /**
+     * Lower cases with the root locale, which returns the same instance for a term that already is, so most
+     * emails are not copied.
+     */
+    private static String normalize(String term) {
+        return term.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Postings {
+
+        private long[] ids = new long[1];
+        private int size;
+        private boolean removed;
+
+        private void add(long id) {
+            if (this.size > 0 && this.ids[this.size - 1] < id) {
+                this.insert(this.size, id);
+                return;
+            }
+            int index = Arrays.binarySearch(this.ids, 0, this.size, id);
+            if (index < 0) {
+                this.insert(-index - 1, id);
+            }
+        }
+
+        private void insert(int index, long id) {
+            if (this.size == this.ids.length) {
+                this.ids = Arrays.copyOf(this.ids, this.size * 2);
+            }
+            System.arraycopy(this.ids, index, this.ids, index + 1, this.size - index);
+            this.ids[index] = id;
+            this.size++;
+        }
+
+        private boolean remove(long id) {
+            int index = Arrays.binarySearch(this.ids, 0, this.size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(this.ids, index + 1, this.ids, index, this.size - index - 1);
+            this.size--;
+            return true;
+        }
+    }
+}
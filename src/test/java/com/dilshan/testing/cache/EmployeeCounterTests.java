@@ -0,0 +1,52 @@
+package com.dilshan.testing.cache;
+
+import com.dilshan.testing.config.EmployeeProperties;
+import com.dilshan.testing.repository.EmployeeRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.*;
+
+public class EmployeeCounterTests {
+
+    //JUnit test for the counter of a single-writer deployment
+    @DisplayName("JUnit test for the counter of a single-writer deployment")
+    @Test
+    public void givenEnabledCounter_whenLoadAndAdd_thenReturnCountPlusWrites() {
+
+        //given - precondition or setup
+        EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+        given(employeeRepository.count()).willReturn(40L);
+        EmployeeProperties properties = new EmployeeProperties();
+        properties.getCount().setEnabled(true);
+        EmployeeCounter employeeCounter = new EmployeeCounter(employeeRepository, properties);
+
+        //when - action or the behaviour to be tested
+        employeeCounter.afterSingletonsInstantiated();
+        employeeCounter.add(3);
+        employeeCounter.add(-1);
+
+        //then -verify the output
+        assertThat(employeeCounter.isLoaded()).isTrue();
+        assertThat(employeeCounter.get()).isEqualTo(42L);
+    }
+
+    //JUnit test for the counter when writes may bypass this instance
+    @DisplayName("JUnit test for the counter when writes may bypass this instance")
+    @Test
+    public void givenDisabledCounter_whenLoad_thenNeverLoaded() {
+
+        //given - precondition or setup
+        EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+        EmployeeCounter employeeCounter = new EmployeeCounter(employeeRepository, new EmployeeProperties());
+
+        //when - action or the behaviour to be tested
+        employeeCounter.afterSingletonsInstantiated();
+        employeeCounter.add(1);
+
+        //then -verify the output
+        assertThat(employeeCounter.isLoaded()).isFalse();
+        verifyNoInteractions(employeeRepository);
+    }
+}
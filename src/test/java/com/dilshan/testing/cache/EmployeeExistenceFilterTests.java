@@ -0,0 +1,40 @@
+package com.dilshan.testing.cache;
+
+import com.dilshan.testing.config.EmployeeProperties;
+import com.dilshan.testing.dto.EmployeeKey;
+import com.dilshan.testing.model.Employee;
+import com.dilshan.testing.repository.EmployeeRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.*;
+
+public class EmployeeExistenceFilterTests {
+
+    //JUnit test for email lookups in another case than the stored email
+    @DisplayName("JUnit test for email lookups in another case than the stored email")
+    @Test
+    public void givenLoadedFilter_whenMightContainEmailInOtherCase_thenReturnTrue() {
+
+        //given - precondition or setup
+        EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+        given(employeeRepository.streamKeys()).willReturn(Stream.of(new EmployeeKey(1L, "test@gmail.com")));
+        EmployeeProperties properties = new EmployeeProperties();
+        properties.getExistenceFilter().setEnabled(true);
+        properties.getExistenceFilter().setExpectedInsertions(1000);
+        EmployeeExistenceFilter existenceFilter = new EmployeeExistenceFilter(employeeRepository, properties);
+
+        //when - action or the behaviour to be tested
+        existenceFilter.load();
+        existenceFilter.add(Employee.builder().id(2L).email("Dimmu@Gmail.com").build());
+
+        //then -verify the output
+        //The email column compares case-insensitively, a definite miss here would hide an existing employee
+        assertThat(existenceFilter.mightContainEmail("Test@Gmail.com")).isTrue();
+        assertThat(existenceFilter.mightContainEmail("TEST@GMAIL.COM")).isTrue();
+        assertThat(existenceFilter.mightContainEmail("dimmu@gmail.com")).isTrue();
+    }
+}
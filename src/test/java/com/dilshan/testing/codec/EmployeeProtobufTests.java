@@ -0,0 +1,63 @@
+package com.dilshan.testing.codec;
+
+import com.dilshan.testing.dto.CursorPage;
+import com.dilshan.testing.dto.EmployeeSummary;
+import com.dilshan.testing.model.Employee;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmployeeProtobufTests {
+
+    //JUnit test for the wire bytes of an employee
+    @DisplayName("JUnit test for the wire bytes of an employee")
+    @Test
+    public void givenEmployee_whenWriteEmployee_thenWriteProtobufFieldsOfTheSchema() throws IOException {
+
+        //given - precondition or setup
+        Employee employee = Employee.builder().id(1L).firstName("A").email("").version(2).build();
+
+        //when - action or the behaviour to be tested
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        EmployeeProtobuf.writeEmployee(employee, out);
+        out.flush();
+
+        //then -verify the output
+        //id = 1 (varint), first_name = "A", no last_name, email = "" (present), version = 2 (varint)
+        assertThat(bytes.toByteArray()).containsExactly(0x08, 0x01, 0x12, 0x01, 'A', 0x22, 0x00, 0x28, 0x02);
+        Employee read = EmployeeProtobuf.readEmployee(CodedInputStream.newInstance(bytes.toByteArray()));
+        assertThat(read).usingRecursiveComparison().isEqualTo(employee);
+        assertThat(read.getLastName()).isNull();
+    }
+
+    //JUnit test for reading a page with fields of a newer schema
+    @DisplayName("JUnit test for reading a page with fields of a newer schema")
+    @Test
+    public void givenPageWithUnknownFields_whenReadPage_thenSkipUnknownFields() throws IOException {
+
+        //given - precondition or setup
+        CursorPage<EmployeeSummary> page = new CursorPage<>(List.of(
+                new EmployeeSummary(1L, "Dilshan", "Wije", "test@gmail.com"),
+                new EmployeeSummary(2L, "Łukasz", null, "lukasz@gmail.com")), "djE6Mg");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        out.writeInt64(9, 42);
+        EmployeeProtobuf.writePage(page, out);
+        out.writeString(10, "added later");
+        out.flush();
+
+        //when - action or the behaviour to be tested
+        CursorPage<EmployeeSummary> read = EmployeeProtobuf.readPage(CodedInputStream.newInstance(bytes.toByteArray()));
+
+        //then -verify the output
+        assertThat(read).isEqualTo(page);
+    }
+}
@@ -1,19 +1,49 @@
 package com.dilshan.testing.controller;
 
+import com.dilshan.testing.cache.EmployeeListSnapshot;
+import com.dilshan.testing.codec.EmployeeMediaTypes;
+import com.dilshan.testing.codec.EmployeeProtobuf;
+import com.dilshan.testing.codec.EmployeeStreams;
+import com.dilshan.testing.config.AccessLogProperties;
+import com.dilshan.testing.config.EmployeeProperties;
+import com.dilshan.testing.dto.CursorPage;
+import com.dilshan.testing.dto.EmployeeCount;
+import com.dilshan.testing.dto.EmployeePatch;
+import com.dilshan.testing.dto.EmployeeSubmission;
+import com.dilshan.testing.dto.EmployeeSummary;
+import com.dilshan.testing.exception.BatchCreateFailed;
+import com.dilshan.testing.exception.InvalidRequest;
+import com.dilshan.testing.exception.ResourceAlreadyExists;
 import com.dilshan.testing.model.Employee;
 import com.dilshan.testing.service.EmployeeService;
+import com.dilshan.testing.service.impl.EmployeeWriteBehind;
+import com.dilshan.testing.util.EmployeeETags;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.google.protobuf.CodedInputStream;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
@@ -23,11 +53,17 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import static org.mockito.ArgumentMatchers.any;
 
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*;
 
 @WebMvcTest
+@Import({EmployeeStreams.class, EmployeeListSnapshot.class})
+@EnableConfigurationProperties({AccessLogProperties.class, EmployeeProperties.class})//Not covered by the properties scan in the slice
 public class EmployeeControllerTest {
     @Autowired
     private MockMvc mockMvc;
@@ -35,9 +71,21 @@ public class EmployeeControllerTest {
     @MockBean
     private EmployeeService employeeService;
 
+    @MockBean
+    private EmployeeWriteBehind writeBehind;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private EmployeeListSnapshot listSnapshot;
+
+    @BeforeEach
+    void setup() {
+        //The snapshot outlives a test in the cached context, each test stubs its own list
+        this.listSnapshot.bumpVersion();
+    }
+
     //JUnit test for create employee method
     @DisplayName("JUnit test for create employee method")
     @Test
@@ -66,15 +114,81 @@ public class EmployeeControllerTest {
                 .andExpect(jsonPath("$.id", is(employee.getId().intValue())));
     }
 
-    //JUnit test for get all employees api
-    @DisplayName("JUnit test for get all employees api")
+    //JUnit test for create employee method with an existing email
+    @DisplayName("JUnit test for create employee method with an existing email")
     @Test
-    public void givenListOfEmployees_whenGetAllEmployees_thenReturnAllEmployeesList() throws Exception {
+    public void givenExistingEmail_whenCreateEmployee_thenReturnStatusCode409() throws Exception {
+
+        //given - precondition or setup
+        Employee employee = Employee.builder()
+                .firstName("Dilshan")
+                .lastName("Wije")
+                .email("test@gmail.com")
+                .build();
+        given(this.employeeService.saveEmployee(any(Employee.class)))
+                .willThrow(new ResourceAlreadyExists("Employee already exists with given email. test@gmail.com"));
+
+        //when - action or the behaviour to be tested
+        ResultActions response = this.mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        //then -verify the output
+        response.andDo(print())
+                .andExpect(status().isConflict());
+    }
+
+    //JUnit test for create employee method with Prefer: respond-async
+    @DisplayName("JUnit test for create employee method with Prefer: respond-async")
+    @Test
+    public void givenRespondAsync_whenCreateEmployee_thenReturnStatusCode202AndTrackSubmission() throws Exception {
+
+        //given - precondition or setup
+        Employee employee = Employee.builder()
+                .firstName("Dilshan")
+                .lastName("Wije")
+                .email("test@gmail.com")
+                .build();
+        given(this.writeBehind.isEnabled()).willReturn(true);
+        given(this.writeBehind.submit(any(Employee.class))).willReturn(Optional.of(EmployeeSubmission.queued("abc")))
+                .willReturn(Optional.empty());
+        given(this.writeBehind.getSubmission("abc")).willReturn(Optional.of(EmployeeSubmission.created("abc", 1L)));
+
+        //when - action or the behaviour to be tested
+        ResultActions response = this.mockMvc.perform(post("/api/employees")
+                .header("Prefer", "wait=5, respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+        ResultActions full = this.mockMvc.perform(post("/api/employees")
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        //then -verify the output
+        response.andDo(print())
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/employees/submissions/abc"))
+                .andExpect(header().string("Preference-Applied", "respond-async"))
+                .andExpect(jsonPath("$.status", is("QUEUED")));
+        full.andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+        this.mockMvc.perform(get("/api/employees/submissions/abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("CREATED")))
+                .andExpect(jsonPath("$.employeeId", is(1)));
+        this.mockMvc.perform(get("/api/employees/submissions/def"))
+                .andExpect(status().isNotFound());
+        verify(this.employeeService, never()).saveEmployee(any(Employee.class));
+    }
+
+    //JUnit test for create employees in batch method
+    @DisplayName("JUnit test for create employees in batch method")
+    @Test
+    public void givenEmployeeArray_whenCreateEmployees_thenReturnCreatedCount() throws Exception {
 
         //given - precondition or setup
         List<Employee> employeeList = List.of(
                 Employee.builder()
-                        .id(1L)
                         .firstName("Dilshan")
                         .lastName("Wije")
                         .email("test@gmail.com")
@@ -84,7 +198,110 @@ public class EmployeeControllerTest {
                         .lastName("Borgir")
                         .email("dimmu@gmail.com")
                         .build());
-        given(this.employeeService.getAllEmployees()).willReturn(employeeList);
+        given(this.employeeService.saveEmployees(any())).willAnswer(invocation -> {
+            Iterator<Employee> employees = invocation.getArgument(0);
+            int count = 0;
+            while (employees.hasNext()) {
+                employees.next();
+                count++;
+            }
+            return count;
+        });
+
+        //when - action or the behaviour to be tested
+        ResultActions response = this.mockMvc.perform(post("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employeeList)));
+
+        //then -verify the output
+        response.andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created", is(2)));
+    }
+
+    //JUnit test for create employees in batch method with a duplicate email in a later chunk
+    @DisplayName("JUnit test for create employees in batch method with a duplicate email in a later chunk")
+    @Test
+    public void givenDuplicateEmailInArray_whenCreateEmployees_thenReturnStatusCode409WithCreatedCount() throws Exception {
+
+        //given - precondition or setup
+        given(this.employeeService.saveEmployees(any())).willThrow(new BatchCreateFailed(5000,
+                new ResourceAlreadyExists("Employee already exists with an email of the batch.")));
+
+        //when - action or the behaviour to be tested
+        ResultActions response = this.mockMvc.perform(post("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"firstName\": \"Dilshan\", \"lastName\": \"Wije\", \"email\": \"test@gmail.com\"}]"));
+
+        //then -verify the output
+        response.andDo(print())
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.created", is(5000)));
+    }
+
+    //JUnit test for create employees in batch method with a too long value in a later chunk
+    @DisplayName("JUnit test for create employees in batch method with a too long value in a later chunk")
+    @Test
+    public void givenTooLongValueInArray_whenCreateEmployees_thenReturnStatusCode400WithCreatedCount() throws Exception {
+
+        //given - precondition or setup
+        given(this.employeeService.saveEmployees(any())).willThrow(new BatchCreateFailed(5000,
+                new DataIntegrityViolationException("Data too long for column 'first_name' at row 17")));
+
+        //when - action or the behaviour to be tested
+        ResultActions response = this.mockMvc.perform(post("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"firstName\": \"Dilshan\", \"lastName\": \"Wije\", \"email\": \"test@gmail.com\"}]"));
+
+        //then -verify the output
+        //Wrong input, not a conflict with existing data
+        response.andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.created", is(5000)));
+    }
+
+    //JUnit test for create employees in batch method with a malformed array
+    @DisplayName("JUnit test for create employees in batch method with a malformed array")
+    @Test
+    public void givenMalformedEmployeeArray_whenCreateEmployees_thenReturnStatusCode400WithCreatedCount() throws Exception {
+
+        //given - precondition or setup
+        //The first element is read and committed before the parse error
+        given(this.employeeService.saveEmployees(any())).willAnswer(invocation -> {
+            Iterator<Employee> employees = invocation.getArgument(0);
+            int saved = 0;
+            try {
+                while (employees.hasNext()) {
+                    employees.next();
+                    saved++;
+                }
+            } catch (RuntimeException e) {
+                throw new BatchCreateFailed(saved, e);
+            }
+            return saved;
+        });
+
+        //when - action or the behaviour to be tested
+        ResultActions response = this.mockMvc.perform(post("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"firstName\": \"Dilshan\"}, {\"firstName\": "));
+
+        //then -verify the output
+        response.andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.created", is(1)));
+    }
+
+    //JUnit test for get all employees api
+    @DisplayName("JUnit test for get all employees api")
+    @Test
+    public void givenListOfEmployees_whenGetAllEmployees_thenReturnAllEmployeesList() throws Exception {
+
+        //given - precondition or setup
+        List<EmployeeSummary> employeeList = List.of(
+                new EmployeeSummary(1L, "Dilshan", "Wije", "test@gmail.com"),
+                new EmployeeSummary(2L, "Dimmu", "Borgir", "dimmu@gmail.com"));
+        given(this.employeeService.getEmployeeSummaries()).willReturn(employeeList);
 
         //when - action or the behaviour to be tested
         ResultActions response = this.mockMvc.perform(get("/api/employees/all")
@@ -97,6 +314,307 @@ public class EmployeeControllerTest {
 
     }
 
+    //JUnit test for get all employees api in protobuf
+    @DisplayName("JUnit test for get all employees api in protobuf")
+    @Test
+    public void givenProtobufAccept_whenGetAllEmployees_thenReturnEmployeeSummaryList() throws Exception {
+
+        //given - precondition or setup
+        List<EmployeeSummary> employeeList = List.of(
+                new EmployeeSummary(1L, "Dilshan", "Wije", "test@gmail.com"),
+                new EmployeeSummary(2L, "Dimmu", "Borgir", "dimmu@gmail.com"));
+        given(this.employeeService.getEmployeeSummaries()).willReturn(employeeList);
+
+        //when - action or the behaviour to be tested
+        ResultActions response = this.mockMvc.perform(get("/api/employees/all")
+                .accept(EmployeeMediaTypes.APPLICATION_PROTOBUF));
+
+        //then -verify the output
+        byte[] body = response.andExpect(status().isOk())
+                .andExpect(content().contentType(EmployeeMediaTypes.APPLICATION_PROTOBUF))
+                //Not the tag of the JSON body of the same list
+                .andExpect(header().string(HttpHeaders.ETAG, EmployeeETags.of(EmployeeETags.of(employeeList), EmployeeMediaTypes.APPLICATION_PROTOBUF)))
+                .andExpect(header().string(HttpHeaders.ETAG, not(EmployeeETags.of(employeeList))))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(EmployeeProtobuf.readSummaries(CodedInputStream.newInstance(body))).isEqualTo(employeeList);
+    }
+
+    //JUnit test for get all employees api with gzip
+    @DisplayName("JUnit test for get all employees api with gzip")
+    @Test
+    public void givenAcceptEncodingGzip_whenGetAllEmployeesTwice_thenReturnCompressedSnapshotOfOneQuery() throws Exception {
+
+        //given - precondition or setup
+        List<EmployeeSummary> employeeList = new ArrayList<>();
+        for (long id = 1; id <= 50; id++) {
+            employeeList.add(new EmployeeSummary(id, "Dilshan", "Wije", "test" + id + "@gmail.com"));
+        }
+        given(this.employeeService.getEmployeeSummaries()).willReturn(employeeList);
+
+        //when - action or the behaviour to be tested
+        this.mockMvc.perform(get("/api/employees/all").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"));
+        ResultActions response = this.mockMvc.perform(get("/api/employees/all")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"));
+
+        //then -verify the output
+        byte[] body = response.andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, new EmployeeListSnapshot.Encoded(new byte[0], null, EmployeeETags.of(employeeList)).gzipETag()))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream json = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            List<EmployeeSummary> employees = this.objectMapper.readerForListOf(EmployeeSummary.class).readValue(json);
+            assertThat(employees).isEqualTo(employeeList);
+        }
+        verify(this.employeeService, times(1)).getEmployeeSummaries();
+    }
+
+    //JUnit test for export employees api
+    @DisplayName("JUnit test for export employees api")
+    @Test
+    public void givenListOfEmployees_whenExportEmployees_thenReturnNewlineDelimitedJson() throws Exception {
+
+        //given - precondition or setup
+        Employee employee1 = Employee.builder()
+                .id(1L)
+                .firstName("Dilshan")
+                .lastName("Wije")
+                .email("test@gmail.com")
+                .build();
+        Employee employee2 = Employee.builder()
+                .id(2L)
+                .firstName("Dimmu")
+                .lastName("Borgir")
+                .email("dimmu@gmail.com")
+                .build();
+        willAnswer(invocation -> {
+            Consumer<Employee> action = invocation.getArgument(0);
+            action.accept(employee1);
+            action.accept(employee2);
+            return null;
+        }).given(this.employeeService).exportEmployees(any());
+
+        //when - action or the behaviour to be tested
+        ResultActions response = this.mockMvc.perform(get("/api/employees/export"));
+
+        //then -verify the output
+        response.andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(objectMapper.writeValueAsString(employee1) + "\n"
+                        + objectMapper.writeValueAsString(employee2) + "\n"));
+    }
+
+    //JUnit test for export employees api in protobuf
+    @DisplayName("JUnit test for export employees api in protobuf")
+    @Test
+    public void givenProtobufAccept_whenExportEmployees_thenReturnDelimitedEmployeeMessages() throws Exception {
+
+        //given - precondition or setup
+        Employee employee1 = Employee.builder().id(1L).firstName("Dilshan").lastName("Wije").email("test@gmail.com").build();
+        Employee employee2 = Employee.builder().id(2L).firstName("Dimmu").lastName("Borgir").email("dimmu@gmail.com").version(3).build();
+        willAnswer(invocation -> {
+            Consumer<Employee> action = invocation.getArgument(0);
+            action.accept(employee1);
+            action.accept(employee2);
+            return null;
+        }).given(this.employeeService).exportEmployees(any());
+
+        //when - action or the behaviour to be tested
+        ResultActions response = this.mockMvc.perform(get("/api/employees/export")
+                .accept(EmployeeMediaTypes.APPLICATION_PROTOBUF));
+
+        //then -verify the output
+        byte[] body = response.andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(EmployeeMediaTypes.APPLICATION_PROTOBUF))
+                .andReturn().getResponse().getContentAsByteArray();
+        List<Employee> exported = new ArrayList<>();
+        EmployeeProtobuf.readDelimitedEmployees(new ByteArrayInputStream(body)).forEachRemaining(exported::add);
+        assertThat(exported).usingRecursiveFieldByFieldElementComparator().containsExactly(employee1, employee2);
+    }
+
+    //JUnit test for get employees page api
+    @DisplayName("JUnit test for get employees page api")
+    @Test
+    public void givenCursorAndSize_whenGetEmployees_thenReturnPageWithNextCursor() throws Exception {
+
+        //given - precondition or setup
+        EmployeeSummary employee = new EmployeeSummary(1L, "Dilshan", "Wije", "test@gmail.com");
+        given(this.employeeService.getEmployees("abc", 1)).willReturn(new CursorPage<>(List.of(employee), "def"));
+
+        //when - action or the behaviour to be tested
+        ResultActions response = this.mockMvc.perform(get("/api/employees/page")
+                .param("cursor", "abc")
+                .param("size", "1")
+                .contentType(MediaType.APPLICATION_JSON));
+
+        //then -verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.content.size()", is(1)))
+                .andExpect(jsonPath("$.content[0].id", is(employee.id().intValue())))
+                .andExpect(jsonPath("$.nextCursor", is("def")));
+    }
+
+    //JUnit test for get employees page api with the ETag of an unchanged page
+    @DisplayName("JUnit test for get employees page api with the ETag of an unchanged page")
+    @Test
+    public void givenETagOfUnchangedPage_whenGetEmployees_thenReturnStatusCode304() throws Exception {
+
+        //given - precondition or setup
+        EmployeeSummary employee = new EmployeeSummary(1L, "Dilshan", "Wije", "test@gmail.com");
+        given(this.employeeService.getEmployees(null, null)).willReturn(new CursorPage<>(List.of(employee), null));
+        String eTag = this.mockMvc.perform(get("/api/employees/page"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        given(this.employeeService.getEmployees(null, null)).willReturn(new CursorPage<>(List.of(employee), null))
+                .willReturn(new CursorPage<>(List.of(new EmployeeSummary(1L, "Nilanga", "Wije", "test@gmail.com")), null));
+
+        //when - action or the behaviour to be tested
+        ResultActions unchanged = this.mockMvc.perform(get("/api/employees/page").header("If-None-Match", eTag));
+        ResultActions changed = this.mockMvc.perform(get("/api/employees/page").header("If-None-Match", eTag));
+
+        //then -verify the output
+        unchanged.andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        changed.andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].firstName", is("Nilanga")));
+    }
+
+    //JUnit test for get employees page api with the total count
+    @DisplayName("JUnit test for get employees page api with the total count")
+    @Test
+    public void givenCountParameter_whenGetEmployees_thenReturnTotalCountHeaders() throws Exception {
+
+        //given - precondition or setup
+        EmployeeSummary employee = new EmployeeSummary(1L, "Dilshan", "Wije", "test@gmail.com");
+        given(this.employeeService.getEmployees(null, null)).willReturn(new CursorPage<>(List.of(employee), null));
+        given(this.employeeService.countEmployees(EmployeeCount.Accuracy.ESTIMATED))
+                .willReturn(new EmployeeCount(1000L, EmployeeCount.Accuracy.ESTIMATED));
+        given(this.employeeService.countEmployees(EmployeeCount.Accuracy.EXACT))
+                .willReturn(new EmployeeCount(998L, EmployeeCount.Accuracy.EXACT));
+
+        //when - action or the behaviour to be tested
+        ResultActions response = this.mockMvc.perform(get("/api/employees/page").param("count", "estimated"));
+        ResultActions count = this.mockMvc.perform(get("/api/employees/count"));
+
+        //then -verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(header().string("X-Total-Count", "1000"))
+                .andExpect(header().string("X-Total-Count-Accuracy", "estimated"))
+                .andExpect(jsonPath("$.content.size()", is(1)));
+        count.andExpect(status().isOk())
+                .andExpect(jsonPath("$.count", is(998)))
+                .andExpect(jsonPath("$.accuracy", is("EXACT")));
+        this.mockMvc.perform(get("/api/employees/count").param("accuracy", "roughly"))
+                .andExpect(status().isBadRequest());
+    }
+
+    //JUnit test for get employees page api with an invalid cursor
+    @DisplayName("JUnit test for get employees page api with an invalid cursor")
+    @Test
+    public void givenInvalidCursor_whenGetEmployees_thenReturnStatusCode400() throws Exception {
+
+        //given - precondition or setup
+        given(this.employeeService.getEmployees("abc", null)).willThrow(new InvalidRequest("Invalid cursor. abc"));
+
+        //when - action or the behaviour to be tested
+        ResultActions response = this.mockMvc.perform(get("/api/employees/page")
+                .param("cursor", "abc")
+                .contentType(MediaType.APPLICATION_JSON));
+
+        //then -verify the output
+        response.andExpect(status().isBadRequest())
+                .andDo(print());
+    }
+
+    //JUnit test for search employees by name api
+    @DisplayName("JUnit test for search employees by name api")
+    @Test
+    public void givenFirstNameAndLastName_whenSearchEmployees_thenReturnMatchingSummaries() throws Exception {
+
+        //given - precondition or setup
+        List<EmployeeSummary> summaries = List.of(
+                new EmployeeSummary(1L, "Dilshan", "Wije", "test@gmail.com"),
+                new EmployeeSummary(2L, "Dilshan", "Wije", "other@gmail.com"));
+        given(this.employeeService.searchEmployees("Dilshan", "Wije", null, null)).willReturn(new CursorPage<>(summaries, null));
+
+        //when - action or the behaviour to be tested
+        ResultActions response = this.mockMvc.perform(get("/api/employees/search")
+                .param("firstName", "Dilshan")
+                .param("lastName", "Wije")
+                .contentType(MediaType.APPLICATION_JSON));
+
+        //then -verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.content.size()", is(2)))
+                .andExpect(jsonPath("$.content[1].email", is("other@gmail.com")));
+    }
+
+    //JUnit test for search employees by name api without a last name
+    @DisplayName("JUnit test for search employees by name api without a last name")
+    @Test
+    public void givenOnlyFirstName_whenSearchEmployees_thenReturnStatusCode400() throws Exception {
+
+        //when - action or the behaviour to be tested
+        ResultActions response = this.mockMvc.perform(get("/api/employees/search")
+                .param("firstName", "Dilshan")
+                .contentType(MediaType.APPLICATION_JSON));
+
+        //then -verify the output
+        response.andExpect(status().isBadRequest())
+                .andDo(print());
+    }
+
+    //JUnit test for search employees by prefix api
+    @DisplayName("JUnit test for search employees by prefix api")
+    @Test
+    public void givenPrefix_whenSearchEmployeesByPrefix_thenReturnMatchingSummaries() throws Exception {
+
+        //given - precondition or setup
+        List<EmployeeSummary> summaries = List.of(
+                new EmployeeSummary(1L, "Dilshan", "Wije", "test@gmail.com"),
+                new EmployeeSummary(2L, "Dimmu", "Borgir", "dimmu@gmail.com"));
+        given(this.employeeService.searchEmployeesByPrefix("di", 10)).willReturn(summaries);
+
+        //when - action or the behaviour to be tested
+        ResultActions response = this.mockMvc.perform(get("/api/employees/search/prefix")
+                .param("q", "di")
+                .param("size", "10"));
+
+        //then -verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(header().string(HttpHeaders.ETAG, EmployeeETags.of(summaries)))
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(jsonPath("$[1].firstName", is("Dimmu")));
+    }
+
+    //JUnit test for query employees api
+    @DisplayName("JUnit test for query employees api")
+    @Test
+    public void givenFiltersAndSort_whenQueryEmployees_thenReturnPage() throws Exception {
+
+        //given - precondition or setup
+        List<EmployeeSummary> summaries = List.of(new EmployeeSummary(1L, "Dilshan", "Wije", "test@gmail.com"));
+        given(this.employeeService.queryEmployees(List.of("lastName:eq:Wije", "firstName:prefix:Dil"),
+                Sort.by(Sort.Order.desc("firstName"), Sort.Order.asc("email")), null, 20))
+                .willReturn(new CursorPage<>(summaries, "next"));
+
+        //when - action or the behaviour to be tested
+        ResultActions response = this.mockMvc.perform(get("/api/employees/query")
+                .param("filter", "lastName:eq:Wije", "firstName:prefix:Dil")
+                .param("sort", "firstName,desc", "email")
+                .param("size", "20"));
+
+        //then -verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.content[0].email", is("test@gmail.com")))
+                .andExpect(jsonPath("$.nextCursor", is("next")));
+    }
+
     //positive scenario - valid employee id
     //JUnit test for get employee by id rest api
     @DisplayName("JUnit test for get employee by id rest api")
@@ -127,6 +645,71 @@ public class EmployeeControllerTest {
 
     }
 
+    //JUnit test for get employee by id rest api in CBOR
+    @DisplayName("JUnit test for get employee by id rest api in CBOR")
+    @Test
+    public void givenCborAccept_whenGetEmployeeById_thenReturnCborEmployee() throws Exception {
+
+        //given - precondition or setup
+        Employee employee = Employee.builder()
+                .id(1L)
+                .firstName("Dilshan")
+                .lastName("Wije")
+                .email("test@gmail.com")
+                .version(2)
+                .build();
+        given(this.employeeService.getEmployeeById(1L)).willReturn(Optional.of(employee));
+
+        //when - action or the behaviour to be tested
+        //The JSON tag of the same version does not validate the CBOR bytes
+        ResultActions response = this.mockMvc.perform(get("/api/employees/id/{id}", 1L)
+                .accept(MediaType.APPLICATION_CBOR)
+                .header("If-None-Match", "\"1-2\""));
+        ResultActions unchanged = this.mockMvc.perform(get("/api/employees/id/{id}", 1L)
+                .accept(MediaType.APPLICATION_CBOR)
+                .header("If-None-Match", "\"1-2-cbor\""));
+
+        //then -verify the output
+        unchanged.andExpect(status().isNotModified());
+        byte[] body = response.andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string("ETag", "\"1-2-cbor\""))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(this.objectMapper.copyWith(new CBORFactory()).readValue(body, Employee.class))
+                .usingRecursiveComparison().isEqualTo(employee);
+    }
+
+    //JUnit test for get employee by id rest api with the ETag of the current version
+    @DisplayName("JUnit test for get employee by id rest api with the ETag of the current version")
+    @Test
+    public void givenMatchingETag_whenGetEmployeeById_thenReturnStatusCode304WithoutBody() throws Exception {
+
+        //given - precondition or setup
+        Employee employee = Employee.builder()
+                .id(1L)
+                .firstName("Dilshan")
+                .lastName("Wije")
+                .email("test@gmail.com")
+                .version(3L)
+                .build();
+        given(this.employeeService.getEmployeeById(employee.getId())).willReturn(Optional.of(employee));
+
+        //when - action or the behaviour to be tested
+        ResultActions changed = this.mockMvc.perform(get("/api/employees/id/{id}", employee.getId())
+                .header("If-None-Match", "\"1-2\""));
+        ResultActions unchanged = this.mockMvc.perform(get("/api/employees/id/{id}", employee.getId())
+                .header("If-None-Match", "\"1-3\""));
+
+        //then -verify the output
+        changed.andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-3\""))
+                .andExpect(jsonPath("$.version", is(3)));
+        unchanged.andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1-3\""))
+                .andExpect(content().string(""));
+    }
+
     //negative scenario - invalid employee id
     //JUnit test for get employee by id rest api with invalid id
     @DisplayName("JUnit test for get employee by id rest api with invalid id")
@@ -148,6 +731,48 @@ public class EmployeeControllerTest {
 
     }
 
+    //JUnit test for get employee by email rest api
+    @DisplayName("JUnit test for get employee by email rest api")
+    @Test
+    public void givenEmail_whenGetEmployeeByEmail_thenReturnEmployeeObject() throws Exception {
+
+        //given - precondition or setup
+        Employee employee = Employee.builder()
+                .id(1L)
+                .firstName("Dilshan")
+                .lastName("Wije")
+                .email("test@gmail.com")
+                .build();
+        given(this.employeeService.getEmployeeByEmail(employee.getEmail())).willReturn(Optional.of(employee));
+
+        //when - action or the behaviour to be tested
+        ResultActions response = this.mockMvc.perform(get("/api/employees/email/{email}", employee.getEmail())
+                .contentType(MediaType.APPLICATION_JSON));
+
+        //then -verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.email", is(employee.getEmail())))
+                .andExpect(jsonPath("$.id", is(employee.getId().intValue())));
+    }
+
+    //JUnit test for get employee by email rest api with an unknown email
+    @DisplayName("JUnit test for get employee by email rest api with an unknown email")
+    @Test
+    public void givenUnknownEmail_whenGetEmployeeByEmail_thenReturnStatusCode404() throws Exception {
+
+        //given - precondition or setup
+        given(this.employeeService.getEmployeeByEmail("nobody@gmail.com")).willReturn(Optional.empty());
+
+        //when - action or the behaviour to be tested
+        ResultActions response = this.mockMvc.perform(get("/api/employees/email/{email}", "nobody@gmail.com")
+                .contentType(MediaType.APPLICATION_JSON));
+
+        //then -verify the output
+        response.andExpect(status().isNotFound())
+                .andDo(print());
+    }
+
     //JUnit test for update employee
     @DisplayName("JUnit test for update employee")
     @Test
@@ -183,6 +808,109 @@ public class EmployeeControllerTest {
                 .andExpect(jsonPath("$.id", is(updateEmployee.getId().intValue())));
     }
 
+    //JUnit test for update employee rest api with If-Match
+    @DisplayName("JUnit test for update employee rest api with If-Match")
+    @Test
+    public void givenIfMatch_whenUpdateEmployee_thenUpdateTheMatchedVersionOrReturnStatusCode412() throws Exception {
+
+        //given - precondition or setup
+        Employee savedEmployee = Employee.builder()
+                .id(1L)
+                .firstName("Dilshan")
+                .lastName("Wije")
+                .email("test@gmail.com")
+                .version(2L)
+                .build();
+        given(this.employeeService.getEmployeeById(savedEmployee.getId()))
+                .willAnswer(invocation -> Optional.of(savedEmployee.toBuilder().build()));
+        given(this.employeeService.updateEmployee(argThat(e -> e != null && e.getVersion() == 2L)))
+                .willAnswer(invocation -> invocation.<Employee>getArgument(0).toBuilder().version(3L).build());
+        given(this.employeeService.updateEmployee(argThat(e -> e != null && e.getVersion() == 5L)))
+                .willThrow(new ObjectOptimisticLockingFailureException(Employee.class, savedEmployee.getId()));
+
+        //when - action or the behaviour to be tested
+        ResultActions matched = mockMvc.perform(put("/api/employees/id/{id}", savedEmployee.getId())
+                .header("If-Match", "\"1-2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(savedEmployee)));
+        //Tag of another format of the same version
+        ResultActions matchedProtobuf = mockMvc.perform(put("/api/employees/id/{id}", savedEmployee.getId())
+                .header("If-Match", "\"1-2-protobuf\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(savedEmployee)));
+        ResultActions otherEmployee = mockMvc.perform(put("/api/employees/id/{id}", savedEmployee.getId())
+                .header("If-Match", "\"7-2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(savedEmployee)));
+        ResultActions staleVersion = mockMvc.perform(put("/api/employees/id/{id}", savedEmployee.getId())
+                .header("If-Match", "\"1-5\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(savedEmployee)));
+
+        //then -verify the output
+        matched.andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-3\""));
+        matchedProtobuf.andExpect(status().isOk());
+        otherEmployee.andExpect(status().isPreconditionFailed())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON));
+        staleVersion.andExpect(status().isPreconditionFailed());
+        verify(this.employeeService, times(3)).updateEmployee(any(Employee.class));
+    }
+
+    //JUnit test for update employee rest api with the email of another employee
+    @DisplayName("JUnit test for update employee rest api with the email of another employee")
+    @Test
+    public void givenTakenEmail_whenUpdateEmployee_thenReturnStatusCode409() throws Exception {
+
+        //given - precondition or setup
+        Employee savedEmployee = Employee.builder()
+                .id(1L)
+                .firstName("Dilshan")
+                .lastName("Wije")
+                .email("test@gmail.com")
+                .build();
+        given(this.employeeService.getEmployeeById(savedEmployee.getId())).willReturn(Optional.of(savedEmployee));
+        given(this.employeeService.updateEmployee(any(Employee.class))).willThrow(new DataIntegrityViolationException(
+                "Duplicate entry 'dimmu@gmail.com' for key 'employees.UK_EMPLOYEES_EMAIL'"));
+
+        //when - action or the behaviour to be tested
+        ResultActions response = mockMvc.perform(put("/api/employees/id/{id}", savedEmployee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(savedEmployee.toBuilder().email("dimmu@gmail.com").build())));
+
+        //then -verify the output
+        response.andExpect(status().isConflict())
+                .andDo(print())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON));
+    }
+
+    //JUnit test for update employee rest api losing a concurrent update
+    @DisplayName("JUnit test for update employee rest api losing a concurrent update")
+    @Test
+    public void givenConcurrentUpdate_whenUpdateEmployeeWithoutIfMatch_thenReturnStatusCode409() throws Exception {
+
+        //given - precondition or setup
+        Employee savedEmployee = Employee.builder()
+                .id(1L)
+                .firstName("Dilshan")
+                .lastName("Wije")
+                .email("test@gmail.com")
+                .build();
+        given(this.employeeService.getEmployeeById(savedEmployee.getId())).willReturn(Optional.of(savedEmployee));
+        given(this.employeeService.updateEmployee(any(Employee.class)))
+                .willThrow(new ObjectOptimisticLockingFailureException(Employee.class, savedEmployee.getId()));
+
+        //when - action or the behaviour to be tested
+        ResultActions response = mockMvc.perform(put("/api/employees/id/{id}", savedEmployee.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(savedEmployee)));
+
+        //then -verify the output
+        response.andExpect(status().isConflict())
+                .andDo(print())
+                .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON));
+    }
+
     //JUnit test for update employee negative scenario
     @DisplayName("JUnit test for update employee")
     @Test
@@ -214,14 +942,7 @@ public class EmployeeControllerTest {
 
         //given - precondition or setup
         Long employeeId = 1L;
-        Employee savedEmployee = Employee.builder()
-                .id(employeeId)
-                .firstName("Dilshan")
-                .lastName("Wije")
-                .email("test@gmail.com")
-                .build();
-        given(this.employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(savedEmployee));
-        willDoNothing().given(this.employeeService).deleteEmployee(employeeId);
+        given(this.employeeService.deleteEmployee(employeeId)).willReturn(true);
 
         //when - action or the behaviour to be tested
         ResultActions response = mockMvc.perform(delete("/api/employees/id/{id}", employeeId)
@@ -239,8 +960,7 @@ public class EmployeeControllerTest {
 
         //given - precondition or setup
         Long employeeId = 1L;
-        given(this.employeeService.getEmployeeById(employeeId)).willReturn(Optional.empty());
-        willDoNothing().given(this.employeeService).deleteEmployee(employeeId);
+        given(this.employeeService.deleteEmployee(employeeId)).willReturn(false);
 
         //when - action or the behaviour to be tested
         ResultActions response = mockMvc.perform(delete("/api/employees/id/{id}", employeeId)
@@ -250,4 +970,45 @@ public class EmployeeControllerTest {
         response.andExpect(status().isNotFound())
                 .andDo(print());
     }
+
+    //JUnit test for patch employee by id rest api
+    @DisplayName("JUnit test for patch employee by id rest api")
+    @Test
+    public void givenEmployeePatch_whenPatchEmployee_thenReturnResponseStatus200WithoutRead() throws Exception {
+
+        //given - precondition or setup
+        Long employeeId = 1L;
+        EmployeePatch patch = new EmployeePatch("Nilanga", null, null);
+        given(this.employeeService.patchEmployee(employeeId, patch)).willReturn(true);
+
+        //when - action or the behaviour to be tested
+        ResultActions response = mockMvc.perform(patch("/api/employees/id/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(patch)));
+
+        //then -verify the output
+        response.andExpect(status().isOk())
+                .andDo(print());
+        verify(this.employeeService, never()).getEmployeeById(employeeId);
+    }
+
+    //JUnit test for patch employee by id rest api with invalid id
+    @DisplayName("JUnit test for patch employee by id rest api with invalid id")
+    @Test
+    public void givenInvalidEmployeeId_whenPatchEmployee_thenReturnResponseStatus404() throws Exception {
+
+        //given - precondition or setup
+        Long employeeId = 1L;
+        EmployeePatch patch = new EmployeePatch(null, null, "new@gmail.com");
+        given(this.employeeService.patchEmployee(employeeId, patch)).willReturn(false);
+
+        //when - action or the behaviour to be tested
+        ResultActions response = mockMvc.perform(patch("/api/employees/id/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(patch)));
+
+        //then -verify the output
+        response.andExpect(status().isNotFound())
+                .andDo(print());
+    }
 }
@@ -0,0 +1,214 @@
+package com.dilshan.testing.integration;
+
+import com.dilshan.testing.dto.EmployeePatch;
+import com.dilshan.testing.dto.EmployeeSummary;
+import com.dilshan.testing.loadtest.OpenModelLoadGenerator;
+import com.dilshan.testing.model.Employee;
+import com.dilshan.testing.repository.EmployeeRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load-test harness, not part of the regular build: drives mixed create / read / update / delete traffic at
+ * open-model arrival rates against the application on a real port and logs p50 / p99 / p999 latency and
+ * throughput for every rate. The saturation point is the first rate where the achieved throughput falls
+ * behind the offered one, or the in-flight count and the tail latency keep growing.
+ * <pre>
+ * mvn test -Dtest=EmployeeApiLoadITests -Dloadtest=true -Dloadtest.rates=100,200,400,800
+ * </pre>
+ * MySQL runs in a container like {@link com.dilshan.testing.testcontainer.AbstractContainerBaseTest}, or
+ * -Dloadtest.datasource.url=jdbc:mysql://... (plus .username / .password) points it at a local server.
+ * Other settings: loadtest.duration and loadtest.warmup (seconds), loadtest.seed (employees created
+ * before the run) and loadtest.mix (weights, create=10,read=70,update=15,delete=5).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+@Slf4j
+public class EmployeeApiLoadITests {
+
+    private static MySQLContainer<?> mySqlContainer;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final AtomicLong emails = new AtomicLong();
+    private final IdPool ids = new IdPool();
+
+    @DynamicPropertySource
+    public static void dynamicPropertySource(DynamicPropertyRegistry registry) {
+        String url = System.getProperty("loadtest.datasource.url");
+        if (url != null) {
+            registry.add("spring.datasource.url", () -> url);
+            registry.add("spring.datasource.username", () -> System.getProperty("loadtest.datasource.username", "root"));
+            registry.add("spring.datasource.password", () -> System.getProperty("loadtest.datasource.password", "password"));
+            return;
+        }
+        mySqlContainer = new MySQLContainer<>(DockerImageName.parse("mysql:8.0"))
+                .withDatabaseName("ems")
+                .withUsername("username")
+                .withPassword("password");
+        mySqlContainer.start();
+        registry.add("spring.datasource.url", mySqlContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", mySqlContainer::getUsername);
+        registry.add("spring.datasource.password", mySqlContainer::getPassword);
+    }
+
+    //Load test for mixed traffic on the employee API at increasing arrival rates
+    @DisplayName("Load test for mixed traffic on the employee API at increasing arrival rates")
+    @Test
+    public void givenArrivalRates_whenDriveMixedTraffic_thenReportLatencyPercentilesAndThroughput() throws Exception {
+
+        //given - precondition or setup
+        this.employeeRepository.deleteAllInBatch();
+        this.seed(Integer.getInteger("loadtest.seed", 10_000));
+        OpenModelLoadGenerator generator = this.generator(System.getProperty("loadtest.mix", "create=10,read=70,update=15,delete=5"));
+        Duration duration = Duration.ofSeconds(Integer.getInteger("loadtest.duration", 60));
+        Duration drainTimeout = Duration.ofSeconds(30);
+        double[] rates = Arrays.stream(System.getProperty("loadtest.rates", "100,200,400").split(","))
+                .mapToDouble(Double::parseDouble)
+                .toArray();
+
+        //when - action or the behaviour to be tested
+        log.info("Warming up at {}/s", rates[0]);
+        generator.run(rates[0], Duration.ofSeconds(Integer.getInteger("loadtest.warmup", 10)), drainTimeout);
+        List<OpenModelLoadGenerator.Report> reports = new ArrayList<>();
+        for (double rate : rates) {
+            OpenModelLoadGenerator.Report report = generator.run(rate, duration, drainTimeout);
+            log.info("Load test step{}{}", System.lineSeparator(), report.format());
+            reports.add(report);
+        }
+
+        //then -verify the output
+        assertThat(reports).allSatisfy(report -> assertThat(report.completed()).isPositive());
+    }
+
+    private OpenModelLoadGenerator generator(String mix) {
+        OpenModelLoadGenerator generator = new OpenModelLoadGenerator();
+        for (String entry : mix.split(",")) {
+            String[] weight = entry.split("=");
+            int share = Integer.parseInt(weight[1].trim());
+            switch (weight[0].trim()) {
+                case "create" -> generator.operation("create", share, this::create);
+                case "read" -> generator.operation("read", share, this::read);
+                case "update" -> generator.operation("update", share, this::update);
+                case "delete" -> generator.operation("delete", share, this::delete);
+                default -> throw new IllegalArgumentException("Unknown operation in loadtest.mix. " + weight[0]);
+            }
+        }
+        return generator;
+    }
+
+    private void seed(int count) throws Exception {
+        List<Employee> employees = LongStream.range(0, count).mapToObj(i -> this.newEmployee()).toList();
+        HttpResponse<Void> response = this.send(HttpRequest.newBuilder(this.uri("/batch"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(this.objectMapper.writeValueAsBytes(employees))));
+        assertThat(response.statusCode()).isEqualTo(201);
+        //Ids are only known once stored, one projection query collects them
+        this.employeeRepository.findAllSummaries().stream().map(EmployeeSummary::id).forEach(this.ids::add);
+        log.info("Seeded {} employees", count);
+    }
+
+    private boolean create() throws Exception {
+        HttpResponse<byte[]> response = this.httpClient.send(HttpRequest.newBuilder(this.uri(""))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(this.objectMapper.writeValueAsBytes(this.newEmployee())))
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 201) {
+            return false;
+        }
+        this.ids.add(this.objectMapper.readValue(response.body(), Employee.class).getId());
+        return true;
+    }
+
+    //A 404 is expected when a delete won the race for the same id, it still costs a full request
+    private boolean read() throws Exception {
+        int status = this.send(HttpRequest.newBuilder(this.uri("/id/" + this.ids.random())).GET()).statusCode();
+        return status == 200 || status == 404;
+    }
+
+    private boolean update() throws Exception {
+        EmployeePatch patch = new EmployeePatch(null, "Load" + ThreadLocalRandom.current().nextInt(1000), null);
+        int status = this.send(HttpRequest.newBuilder(this.uri("/id/" + this.ids.random()))
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofByteArray(this.objectMapper.writeValueAsBytes(patch)))).statusCode();
+        return status == 200 || status == 404;
+    }
+
+    private boolean delete() throws Exception {
+        int status = this.send(HttpRequest.newBuilder(this.uri("/id/" + this.ids.remove())).DELETE()).statusCode();
+        return status == 200 || status == 404;
+    }
+
+    private HttpResponse<Void> send(HttpRequest.Builder request) throws Exception {
+        return this.httpClient.send(request.timeout(Duration.ofSeconds(60)).build(), HttpResponse.BodyHandlers.discarding());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + this.port + "/api/employees" + path);
+    }
+
+    private Employee newEmployee() {
+        long n = this.emails.incrementAndGet();
+        return Employee.builder().firstName("Load").lastName("Test" + n).email("load" + n + "@gmail.com").build();
+    }
+
+    /**
+     * Ids of the employees that exist, as far as the generator knows, with random picks and removals.
+     */
+    private static class IdPool {
+
+        private final List<Long> ids = new ArrayList<>();
+
+        synchronized void add(Long id) {
+            this.ids.add(id);
+        }
+
+        synchronized long random() {
+            return this.ids.isEmpty() ? 0L : this.ids.get(ThreadLocalRandom.current().nextInt(this.ids.size()));
+        }
+
+        synchronized long remove() {
+            if (this.ids.isEmpty()) {
+                return 0L;
+            }
+            int index = ThreadLocalRandom.current().nextInt(this.ids.size());
+            long id = this.ids.get(index);
+            //Swap with the last element, removal stays O(1)
+            this.ids.set(index, this.ids.get(this.ids.size() - 1));
+            this.ids.remove(this.ids.size() - 1);
+            return id;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.dilshan.testing.integration;
 
+import com.dilshan.testing.cache.EmployeeCache;
+import com.dilshan.testing.cache.EmployeeListSnapshot;
 import com.dilshan.testing.model.Employee;
 import com.dilshan.testing.repository.EmployeeRepository;
 import com.dilshan.testing.testcontainer.AbstractContainerBaseTest;
@@ -38,9 +40,18 @@ public class EmployeeControllerITestContainers extends AbstractContainerBaseTest
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private EmployeeCache employeeCache;
+
+    @Autowired
+    private EmployeeListSnapshot listSnapshot;
+
     @BeforeEach
     void setup() {
         this.employeeRepository.deleteAll();
+        this.employeeCache.clear();
+        //The tests write through the repository, not the service
+        this.listSnapshot.bumpVersion();
     }
 
     //Integration test for create employee method
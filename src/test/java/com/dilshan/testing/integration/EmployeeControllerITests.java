@@ -1,5 +1,7 @@
 package com.dilshan.testing.integration;
 
+import com.dilshan.testing.cache.EmployeeCache;
+import com.dilshan.testing.cache.EmployeeListSnapshot;
 import com.dilshan.testing.model.Employee;
 import com.dilshan.testing.repository.EmployeeRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -16,6 +18,7 @@ import org.springframework.test.web.servlet.ResultActions;
 
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -36,9 +39,18 @@ public class EmployeeControllerITests {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private EmployeeCache employeeCache;
+
+    @Autowired
+    private EmployeeListSnapshot listSnapshot;
+
     @BeforeEach
     void setup() {
         this.employeeRepository.deleteAll();
+        this.employeeCache.clear();
+        //The tests write through the repository, not the service
+        this.listSnapshot.bumpVersion();
     }
 
     //Integration test for create employee method
@@ -67,6 +79,63 @@ public class EmployeeControllerITests {
                 .andExpect(jsonPath("$.email", is(employee.getEmail())));
     }
 
+    //Integration test for create employee method with an existing email
+    @DisplayName("Integration test for create employee method with an existing email")
+    @Test
+    public void givenExistingEmail_whenCreateEmployee_thenReturnStatusCode409() throws Exception {
+
+        //given - precondition or setup
+        Employee employee = Employee.builder()
+                .firstName("Dilshan")
+                .lastName("Wije")
+                .email("test@gmail.com")
+                .build();
+        this.employeeRepository.save(Employee.builder()
+                .firstName("Dimmu")
+                .lastName("Borgir")
+                .email(employee.getEmail())
+                .build());
+
+        //when - action or the behaviour to be tested
+        ResultActions response = this.mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        //then -verify the output
+        response.andDo(print())
+                .andExpect(status().isConflict());
+    }
+
+    //Integration test for create employees in batch method
+    @DisplayName("Integration test for create employees in batch method")
+    @Test
+    public void givenEmployeeArray_whenCreateEmployees_thenSaveEveryEmployee() throws Exception {
+
+        //given - precondition or setup
+        List<Employee> employeeList = List.of(
+                Employee.builder()
+                        .firstName("Dilshan")
+                        .lastName("Wije")
+                        .email("test@gmail.com")
+                        .build(),
+                Employee.builder()
+                        .firstName("Dimmu")
+                        .lastName("Borgir")
+                        .email("dimmu@gmail.com")
+                        .build());
+
+        //when - action or the behaviour to be tested
+        ResultActions response = this.mockMvc.perform(post("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employeeList)));
+
+        //then -verify the output
+        response.andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.created", is(2)));
+        assertThat(this.employeeRepository.count()).isEqualTo(2);
+    }
+
     //Integration test for get all employees api
     @DisplayName("Integration test for get all employees api")
     @Test
@@ -0,0 +1,123 @@
+package com.dilshan.testing.integration;
+
+import com.dilshan.testing.cache.EmployeeExistenceFilter;
+import com.dilshan.testing.cache.EmployeeSearchIndex;
+import com.dilshan.testing.model.Employee;
+import com.dilshan.testing.repository.EmployeeRepository;
+import com.dilshan.testing.repository.EmployeeSequenceInitializer;
+import com.dilshan.testing.service.EmployeeService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+
+/**
+ * Sends the same burst of concurrent requests to a running server on platform request threads,
+ * {@link EmployeeControllerVirtualThreadsLoadITests} repeats it on virtual threads. The service is mocked
+ * with a fixed latency standing in for blocking MySQL I/O, so no database is needed.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.autoconfigure.exclude="
+        + "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration,"
+        + "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration")
+@Slf4j
+public class EmployeeControllerLoadITests {
+
+    private static final int REQUESTS = 1000;
+    private static final Duration LATENCY = Duration.ofMillis(500);
+    private static final int PLATFORM_THREADS = 200;
+
+    @LocalServerPort
+    private int port;
+
+    @MockBean
+    private EmployeeService employeeService;
+
+    @MockBean
+    private EmployeeRepository employeeRepository;
+
+    @MockBean
+    private EmployeeExistenceFilter existenceFilter;
+
+    @MockBean
+    private EmployeeSearchIndex searchIndex;
+
+    @MockBean
+    private EmployeeSequenceInitializer sequenceInitializer;
+
+    /**
+     * @return whether the server under test runs requests on virtual threads
+     */
+    protected boolean virtualThreads() {
+        return false;
+    }
+
+    //Integration test for concurrent get employee by id requests blocking on the service
+    @DisplayName("Integration test for concurrent get employee by id requests blocking on the service")
+    @Test
+    public void givenBlockingService_whenConcurrentGetEmployeeById_thenConcurrencyFollowsThreadMode() throws Exception {
+
+        //given - precondition or setup
+        Employee employee = Employee.builder()
+                .id(1L)
+                .firstName("Dilshan")
+                .lastName("Wije")
+                .email("test@gmail.com")
+                .build();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        AtomicInteger onVirtualThreads = new AtomicInteger();
+        given(this.employeeService.getEmployeeById(anyLong())).willAnswer(invocation -> {
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            if (Thread.currentThread().isVirtual()) {
+                onVirtualThreads.incrementAndGet();
+            }
+            Thread.sleep(LATENCY);
+            inFlight.decrementAndGet();
+            return Optional.of(employee);
+        });
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + this.port + "/api/employees/id/1")).build();
+
+        //when - action or the behaviour to be tested
+        long start = System.nanoTime();
+        List<Future<HttpResponse<Void>>> responses = new ArrayList<>();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < REQUESTS; i++) {
+                responses.add(clients.submit(() -> client.send(request, HttpResponse.BodyHandlers.discarding())));
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        log.info("{} request threads: {} requests in {} ms, peak {} in flight",
+                this.virtualThreads() ? "Virtual" : "Platform", REQUESTS, elapsed.toMillis(), peak.get());
+
+        //then -verify the output
+        for (Future<HttpResponse<Void>> response : responses) {
+            assertThat(response.get().statusCode()).isEqualTo(200);
+        }
+        assertThat(onVirtualThreads.get()).isEqualTo(this.virtualThreads() ? REQUESTS : 0);
+        if (this.virtualThreads()) {
+            assertThat(peak.get()).isGreaterThan(PLATFORM_THREADS);
+        } else {
+            assertThat(peak.get()).isLessThanOrEqualTo(PLATFORM_THREADS);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.dilshan.testing.integration;
+
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Runs every {@link EmployeeControllerITests} test with the employee cache switched off.
+ */
+@ActiveProfiles("nocache")
+public class EmployeeControllerNoCacheITests extends EmployeeControllerITests {
+}
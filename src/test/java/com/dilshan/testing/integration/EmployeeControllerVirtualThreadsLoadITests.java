@@ -0,0 +1,15 @@
+package com.dilshan.testing.integration;
+
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Runs the {@link EmployeeControllerLoadITests} burst with the virtual thread profile.
+ */
+@ActiveProfiles("virtual")
+public class EmployeeControllerVirtualThreadsLoadITests extends EmployeeControllerLoadITests {
+
+    @Override
+    protected boolean virtualThreads() {
+        return true;
+    }
+}
@@ -0,0 +1,79 @@
+package com.dilshan.testing.integration;
+
+import com.dilshan.testing.model.Employee;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Scrapes the Prometheus endpoint after a few requests, against an in-memory H2 database so the
+ * Hikari pool and the repository timers are real.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:metrics;MODE=MySQL",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@Slf4j
+public class EmployeeMetricsITests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    //Integration test for the prometheus endpoint after create, get and conflicting update employee requests
+    @DisplayName("Integration test for the prometheus endpoint after create, get and conflicting update employee requests")
+    @Test
+    public void givenEmployeeRequests_whenScrapePrometheus_thenExposeEndpointServiceRepositoryAndPoolMetrics() throws Exception {
+
+        //given - precondition or setup
+        Employee employee = Employee.builder()
+                .firstName("Dilshan")
+                .lastName("Wije")
+                .email("metrics@gmail.com")
+                .build();
+        String savedEmployee = this.mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andReturn().getResponse().getContentAsString();
+        Long id = this.objectMapper.readValue(savedEmployee, Employee.class).getId();
+        this.mockMvc.perform(get("/api/employees/id/{id}", id)).andExpect(status().isOk());
+        this.mockMvc.perform(put("/api/employees/id/{id}", id)
+                        .header("If-Match", "\"" + id + "-7\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(savedEmployee))
+                .andExpect(status().isPreconditionFailed());
+
+        //when - action or the behaviour to be tested
+        String scrape = this.mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        //then -verify the output
+        assertThat(scrape)
+                .containsPattern("http_server_requests_seconds_bucket\\{.*uri=\"/api/employees/id/\\{id}\"")
+                .containsPattern("employees_service_seconds_bucket\\{.*method=\"getEmployeeById\"")
+                .containsPattern("employees_service_seconds_bucket\\{.*method=\"saveEmployee\"")
+                .containsPattern("spring_data_repository_invocations_seconds_bucket\\{.*method=\"findById\".*repository=\"EmployeeRepository\"")
+                .contains("hikaricp_connections_active{", "hikaricp_connections_idle{", "hikaricp_connections_pending{")
+                .contains("hikaricp_connections_acquire_seconds_bucket{", "hikaricp_connections_usage_seconds_bucket{")
+                .containsPattern("employees_update_conflicts_total\\{.*reason=\"precondition_failed\"");
+    }
+}
@@ -0,0 +1,366 @@
+package com.dilshan.testing.integration;
+
+import com.dilshan.testing.dto.CursorPage;
+import com.dilshan.testing.dto.EmployeePatch;
+import com.dilshan.testing.dto.EmployeeSummary;
+import com.dilshan.testing.model.Employee;
+import com.dilshan.testing.repository.ReactiveEmployeeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The reactive profile end to end on Netty, against an in-memory H2 database through r2dbc-h2.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///employees;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.schema-locations=classpath:db/employees-r2dbc.sql"})
+@ActiveProfiles("reactive")
+@Slf4j
+public class EmployeeRouterITests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveEmployeeRepository employeeRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    private Employee employee;
+
+    @BeforeEach
+    void setup() {
+        this.databaseClient.sql("DELETE FROM employees").then().block();
+        this.employee = Employee.builder()
+                .firstName("Dilshan")
+                .lastName("Wije")
+                .email("test@gmail.com")
+                .build();
+    }
+
+    //Integration test for create employee route
+    @DisplayName("Integration test for create employee route")
+    @Test
+    public void givenEmployeeObject_whenCreateEmployee_thenReturnSavedEmployee() {
+
+        //given - precondition or setup
+        //Employee object from the private variable
+
+        //when - action or the behaviour to be tested
+        Employee savedEmployee = this.webTestClient.post().uri("/api/employees")
+                .bodyValue(employee)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Employee.class)
+                .returnResult().getResponseBody();
+
+        //then -verify the output
+        assertThat(savedEmployee.getId()).isNotNull();
+        this.webTestClient.get().uri("/api/employees/id/{id}", savedEmployee.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.email").isEqualTo(employee.getEmail());
+    }
+
+    //Integration test for get employee by id route with If-None-Match before and after a patch
+    @DisplayName("Integration test for get employee by id route with If-None-Match before and after a patch")
+    @Test
+    public void givenETag_whenGetEmployeeByIdBeforeAndAfterPatch_thenReturn304Then200() {
+
+        //given - precondition or setup
+        Employee savedEmployee = this.employeeRepository.insert(employee).block();
+        String eTag = this.webTestClient.get().uri("/api/employees/id/{id}", savedEmployee.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Employee.class).getResponseHeaders().getETag();
+
+        //when - action or the behaviour to be tested
+        WebTestClient.ResponseSpec unchanged = this.webTestClient.get().uri("/api/employees/id/{id}", savedEmployee.getId())
+                .ifNoneMatch(eTag)
+                .exchange();
+        this.employeeRepository.patch(savedEmployee.getId(), new EmployeePatch("Nilanga", null, null)).block();
+        WebTestClient.ResponseSpec changed = this.webTestClient.get().uri("/api/employees/id/{id}", savedEmployee.getId())
+                .ifNoneMatch(eTag)
+                .exchange();
+
+        //then -verify the output
+        assertThat(eTag).isEqualTo("\"" + savedEmployee.getId() + "-0\"");
+        unchanged.expectStatus().isNotModified()
+                .expectBody().isEmpty();
+        changed.expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"" + savedEmployee.getId() + "-1\"")
+                .expectBody()
+                .jsonPath("$.firstName").isEqualTo("Nilanga");
+    }
+
+    //Integration test for create employee route with an existing email
+    @DisplayName("Integration test for create employee route with an existing email")
+    @Test
+    public void givenExistingEmail_whenCreateEmployee_thenReturnStatusCode409() {
+
+        //given - precondition or setup
+        this.employeeRepository.insert(employee).block();
+
+        //when - action or the behaviour to be tested
+        WebTestClient.ResponseSpec response = this.webTestClient.post().uri("/api/employees")
+                .bodyValue(employee)
+                .exchange();
+
+        //then -verify the output
+        response.expectStatus().isEqualTo(409)
+                .expectBody()
+                .jsonPath("$.instance").isEqualTo("/api/employees");
+    }
+
+    //Integration test for create employees in batch route and keyset pages
+    @DisplayName("Integration test for create employees in batch route and keyset pages")
+    @Test
+    public void givenEmployeeArray_whenCreateEmployeesAndPage_thenReturnEveryEmployeeOnce() {
+
+        //given - precondition or setup
+        List<Employee> employeeList = List.of(
+                employee,
+                Employee.builder().firstName("Dimmu").lastName("Borgir").email("dimmu@gmail.com").build(),
+                Employee.builder().firstName("Tony").lastName("Stark").email("tony@gmail.com").build());
+
+        //when - action or the behaviour to be tested
+        this.webTestClient.post().uri("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employeeList)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.created").isEqualTo(3);
+        CursorPage<EmployeeSummary> firstPage = this.getPage("/api/employees/page?size=2");
+        CursorPage<EmployeeSummary> secondPage = this.getPage("/api/employees/page?size=2&cursor=" + firstPage.nextCursor());
+
+        //then -verify the output
+        assertThat(firstPage.content()).extracting(EmployeeSummary::email).containsExactly(employee.getEmail(), "dimmu@gmail.com");
+        assertThat(secondPage.content()).extracting(EmployeeSummary::email).containsExactly("tony@gmail.com");
+        assertThat(secondPage.nextCursor()).isNull();
+    }
+
+    //Integration test for create, get and list employee routes in CBOR
+    @DisplayName("Integration test for create, get and list employee routes in CBOR")
+    @Test
+    public void givenCborAccept_whenCreateGetAndListEmployees_thenExchangeCbor() {
+
+        //given - precondition or setup
+        //Employee object from the private variable
+
+        //when - action or the behaviour to be tested
+        Employee savedEmployee = this.webTestClient.post().uri("/api/employees")
+                .contentType(MediaType.APPLICATION_CBOR)
+                .accept(MediaType.APPLICATION_CBOR)
+                .bodyValue(employee)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody(Employee.class)
+                .returnResult().getResponseBody();
+        Employee foundEmployee = this.webTestClient.get().uri("/api/employees/id/{id}", savedEmployee.getId())
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody(Employee.class)
+                .returnResult().getResponseBody();
+        List<EmployeeSummary> employees = this.webTestClient.get().uri("/api/employees/all")
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(new ParameterizedTypeReference<List<EmployeeSummary>>() {
+                })
+                .returnResult().getResponseBody();
+
+        //then -verify the output
+        assertThat(foundEmployee.getEmail()).isEqualTo(employee.getEmail());
+        assertThat(foundEmployee.getVersion()).isEqualTo(savedEmployee.getVersion());
+        assertThat(employees).extracting(EmployeeSummary::id).containsExactly(savedEmployee.getId());
+    }
+
+    //Integration test for export employees route
+    @DisplayName("Integration test for export employees route")
+    @Test
+    public void givenListOfEmployees_whenExportEmployees_thenStreamOneJsonLinePerEmployee() {
+
+        //given - precondition or setup
+        this.employeeRepository.insertAll(List.of(employee,
+                Employee.builder().firstName("Dimmu").lastName("Borgir").email("dimmu@gmail.com").build())).block();
+
+        //when - action or the behaviour to be tested
+        List<Employee> exported = this.webTestClient.get().uri("/api/employees/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Employee.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        //then -verify the output
+        assertThat(exported).extracting(Employee::getEmail).containsExactly(employee.getEmail(), "dimmu@gmail.com");
+    }
+
+    //Integration test for search employees by name and get by email routes
+    @DisplayName("Integration test for search employees by name and get by email routes")
+    @Test
+    public void givenEmployees_whenSearchByNameAndGetByEmail_thenReturnMatchingEmployee() {
+
+        //given - precondition or setup
+        this.employeeRepository.insertAll(List.of(employee,
+                Employee.builder().firstName("Dimmu").lastName("Borgir").email("dimmu@gmail.com").build())).block();
+
+        //when - action or the behaviour to be tested
+        WebTestClient.ResponseSpec search = this.webTestClient.get()
+                .uri("/api/employees/search?firstName={firstName}&lastName={lastName}", "Dimmu", "Borgir")
+                .exchange();
+        WebTestClient.ResponseSpec byEmail = this.webTestClient.get()
+                .uri("/api/employees/email/{email}", employee.getEmail())
+                .exchange();
+
+        //then -verify the output
+        search.expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(1)
+                .jsonPath("$.content[0].email").isEqualTo("dimmu@gmail.com");
+        byEmail.expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.firstName").isEqualTo(employee.getFirstName());
+    }
+
+    //Integration test for update and patch employee routes
+    @DisplayName("Integration test for update and patch employee routes")
+    @Test
+    public void givenSavedEmployee_whenUpdateAndPatchEmployee_thenReturnUpdatedEmployee() {
+
+        //given - precondition or setup
+        Employee savedEmployee = this.employeeRepository.insert(employee).block();
+        Employee updateEmployee = Employee.builder()
+                .firstName("Dimmu")
+                .lastName("Borgir")
+                .email("dimmu@gmail.com")
+                .build();
+
+        //when - action or the behaviour to be tested
+        this.webTestClient.put().uri("/api/employees/id/{id}", savedEmployee.getId())
+                .bodyValue(updateEmployee)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.email").isEqualTo(updateEmployee.getEmail());
+        this.webTestClient.patch().uri("/api/employees/id/{id}", savedEmployee.getId())
+                .bodyValue(new EmployeePatch("Nilanga", null, null))
+                .exchange()
+                .expectStatus().isOk();
+
+        //then -verify the output
+        Employee patchedEmployee = this.employeeRepository.findById(savedEmployee.getId()).block();
+        assertThat(patchedEmployee.getFirstName()).isEqualTo("Nilanga");
+        assertThat(patchedEmployee.getLastName()).isEqualTo(updateEmployee.getLastName());
+        assertThat(patchedEmployee.getEmail()).isEqualTo(updateEmployee.getEmail());
+        this.webTestClient.patch().uri("/api/employees/id/{id}", savedEmployee.getId() + 1000)
+                .bodyValue(new EmployeePatch("Nilanga", null, null))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    //Integration test for update employee route with a stale If-Match
+    @DisplayName("Integration test for update employee route with a stale If-Match")
+    @Test
+    public void givenStaleIfMatch_whenUpdateEmployee_thenReturnStatusCode412() {
+
+        //given - precondition or setup
+        Employee savedEmployee = this.employeeRepository.insert(employee).block();
+        String staleETag = "\"" + savedEmployee.getId() + "-0\"";
+        this.employeeRepository.patch(savedEmployee.getId(), new EmployeePatch("Nilanga", null, null)).block();
+
+        //when - action or the behaviour to be tested
+        WebTestClient.ResponseSpec stale = this.webTestClient.put().uri("/api/employees/id/{id}", savedEmployee.getId())
+                .header("If-Match", staleETag)
+                .bodyValue(employee)
+                .exchange();
+        WebTestClient.ResponseSpec current = this.webTestClient.put().uri("/api/employees/id/{id}", savedEmployee.getId())
+                .header("If-Match", "\"" + savedEmployee.getId() + "-1\"")
+                .bodyValue(employee)
+                .exchange();
+
+        //then -verify the output
+        stale.expectStatus().isEqualTo(412)
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON);
+        current.expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"" + savedEmployee.getId() + "-2\"")
+                .expectBody()
+                .jsonPath("$.firstName").isEqualTo(employee.getFirstName());
+    }
+
+    //Integration test for delete employee route
+    @DisplayName("Integration test for delete employee route")
+    @Test
+    public void givenSavedEmployee_whenDeleteEmployee_thenReturn200Then404() {
+
+        //given - precondition or setup
+        Employee savedEmployee = this.employeeRepository.insert(employee).block();
+
+        //when - action or the behaviour to be tested
+        this.webTestClient.delete().uri("/api/employees/id/{id}", savedEmployee.getId())
+                .exchange()
+                .expectStatus().isOk();
+
+        //then -verify the output
+        this.webTestClient.delete().uri("/api/employees/id/{id}", savedEmployee.getId())
+                .exchange()
+                .expectStatus().isNotFound();
+        this.webTestClient.get().uri("/api/employees/id/{id}", savedEmployee.getId())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    //Integration test for routes with invalid parameters
+    @DisplayName("Integration test for routes with invalid parameters")
+    @Test
+    public void givenInvalidParameters_whenCallRoutes_thenReturnStatusCode400() {
+
+        //given - precondition or setup
+        //No employees needed
+
+        //when - action or the behaviour to be tested
+        WebTestClient.ResponseSpec invalidSize = this.webTestClient.get().uri("/api/employees/page?size=0").exchange();
+        WebTestClient.ResponseSpec invalidId = this.webTestClient.get().uri("/api/employees/id/abc").exchange();
+        WebTestClient.ResponseSpec missingName = this.webTestClient.get().uri("/api/employees/search?firstName=Dilshan").exchange();
+
+        //then -verify the output
+        invalidSize.expectStatus().isBadRequest()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_PROBLEM_JSON);
+        invalidId.expectStatus().isBadRequest();
+        missingName.expectStatus().isBadRequest();
+    }
+
+    private CursorPage<EmployeeSummary> getPage(String uri) {
+        return this.webTestClient.get().uri(uri)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(new ParameterizedTypeReference<CursorPage<EmployeeSummary>>() {
+                })
+                .returnResult().getResponseBody();
+    }
+}
@@ -0,0 +1,73 @@
+package com.dilshan.testing.integration;
+
+import com.dilshan.testing.model.Employee;
+import com.dilshan.testing.repository.EmployeeRepository;
+import com.dilshan.testing.testcontainer.AbstractContainerBaseTest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the application against an employees table that already holds rows and has no employees_seq yet, the
+ * state of a database created while the ids were IDENTITY values.
+ */
+@SpringBootTest
+public class EmployeeSequenceITests extends AbstractContainerBaseTest {
+
+    private static long legacyId;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    /**
+     * Runs while the test context is built, before the schema update creates employees_seq at 1.
+     */
+    @DynamicPropertySource
+    public static void prepopulate(DynamicPropertyRegistry registry) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(MY_SQL_CONTAINER.getJdbcUrl(),
+                MY_SQL_CONTAINER.getUsername(), MY_SQL_CONTAINER.getPassword());
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists employees (id bigint not null auto_increment, "
+                    + "email varchar(255) not null, first_name varchar(255) not null, last_name varchar(255) not null, "
+                    + "version bigint not null default 0, primary key (id))");
+            statement.execute("drop table if exists employees_seq");
+            try (ResultSet max = statement.executeQuery("select coalesce(max(id), 0) + 1000 from employees")) {
+                max.next();
+                legacyId = max.getLong(1);
+            }
+            statement.executeUpdate(String.format("insert into employees (id, first_name, last_name, email, version) "
+                    + "values (%d, 'Legacy', 'Employee', 'legacy%d@gmail.com', 0)", legacyId, legacyId));
+        }
+    }
+
+    //Integration test for inserts after starting on a pre-populated table
+    @DisplayName("Integration test for inserts after starting on a pre-populated table")
+    @Test
+    public void givenPrepopulatedTable_whenSaveEmployees_thenIdsFollowExistingRows() {
+
+        //given - precondition or setup
+        List<Employee> employees = List.of(
+                Employee.builder().firstName("Dilshan").lastName("Wijetunga").email("sequence1@gmail.com").build(),
+                Employee.builder().firstName("Slayer").lastName("Araya").email("sequence2@gmail.com").build());
+
+        //when - action or the behaviour to be tested
+        List<Employee> savedEmployees = this.employeeRepository.saveAllAndFlush(employees);
+
+        //then -verify the output
+        assertThat(savedEmployees).allSatisfy(employee -> assertThat(employee.getId()).isGreaterThan(legacyId));
+        assertThat(this.employeeRepository.findById(legacyId)).hasValueSatisfying(
+                employee -> assertThat(employee.getFirstName()).isEqualTo("Legacy"));
+    }
+}
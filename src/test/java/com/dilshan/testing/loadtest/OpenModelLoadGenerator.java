@@ -0,0 +1,178 @@
+package com.dilshan.testing.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: operations start on a fixed schedule at the target arrival rate, whether or not
+ * earlier ones have finished, each on its own virtual thread. A slow server therefore builds up requests in
+ * flight instead of slowing the generator down, which is what happens with real users. Latency is measured
+ * from the scheduled start, not the actual one, so time spent waiting behind a stalled server is counted
+ * (no coordinated omission).
+ */
+public class OpenModelLoadGenerator {
+
+    /**
+     * One kind of request, returns whether the response was acceptable.
+     */
+    @FunctionalInterface
+    public interface Operation {
+        boolean call() throws Exception;
+    }
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final List<String> names = new ArrayList<>();
+    private final List<Operation> operations = new ArrayList<>();
+    private final List<Integer> cumulativeWeights = new ArrayList<>();
+
+    /**
+     * @param name      reported name of the operation
+     * @param weight    relative share of the arrivals
+     * @param operation the request
+     * @return this generator
+     */
+    public OpenModelLoadGenerator operation(String name, int weight, Operation operation) {
+        int total = this.cumulativeWeights.isEmpty() ? 0 : this.cumulativeWeights.get(this.cumulativeWeights.size() - 1);
+        this.names.add(name);
+        this.operations.add(operation);
+        this.cumulativeWeights.add(total + weight);
+        return this;
+    }
+
+    /**
+     * @param ratePerSecond arrivals per second
+     * @param duration      how long new operations are started, in-flight ones are then given drainTimeout to finish
+     * @return latency histograms, errors and throughput per operation
+     */
+    public Report run(double ratePerSecond, Duration duration, Duration drainTimeout) throws InterruptedException {
+        Map<String, Stats> stats = new LinkedHashMap<>();
+        this.names.forEach(name -> stats.put(name, new Stats()));
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        long scheduled = 0;
+        for (long intended = start; intended < end; intended += intervalNanos) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            int index = this.pick();
+            Stats operationStats = stats.get(this.names.get(index));
+            Operation operation = this.operations.get(index);
+            long intendedStart = intended;
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            executor.execute(() -> {
+                boolean ok;
+                try {
+                    ok = operation.call();
+                } catch (Exception e) {
+                    ok = false;
+                }
+                operationStats.record(System.nanoTime() - intendedStart, ok);
+                inFlight.decrementAndGet();
+            });
+            scheduled++;
+        }
+        executor.shutdown();
+        boolean drained = executor.awaitTermination(drainTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        long elapsed = System.nanoTime() - start;
+        executor.shutdownNow();
+        return new Report(ratePerSecond, scheduled, elapsed, maxInFlight.get(), drained ? 0 : inFlight.get(), stats);
+    }
+
+    private int pick() {
+        int value = ThreadLocalRandom.current().nextInt(this.cumulativeWeights.get(this.cumulativeWeights.size() - 1));
+        for (int i = 0; i < this.cumulativeWeights.size(); i++) {
+            if (value < this.cumulativeWeights.get(i)) {
+                return i;
+            }
+        }
+        return this.cumulativeWeights.size() - 1;
+    }
+
+    public static class Stats {
+
+        private final Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+        private final LongAdder errors = new LongAdder();
+
+        void record(long nanos, boolean ok) {
+            this.latency.recordValue(Math.min(nanos, HIGHEST_TRACKABLE_NANOS));
+            if (!ok) {
+                this.errors.increment();
+            }
+        }
+
+        public Histogram getLatency() {
+            return this.latency;
+        }
+
+        public long getErrors() {
+            return this.errors.sum();
+        }
+    }
+
+    /**
+     * @param offeredRate  target arrivals per second
+     * @param scheduled    operations started
+     * @param elapsedNanos from the first scheduled start until the last operation finished
+     * @param maxInFlight  highest number of operations in flight at once, it keeps growing past saturation
+     * @param unfinished   operations still in flight when the drain timeout ran out
+     */
+    public record Report(double offeredRate, long scheduled, long elapsedNanos, int maxInFlight, int unfinished,
+                         Map<String, Stats> operations) {
+
+        public long completed() {
+            return this.operations.values().stream().mapToLong(stats -> stats.getLatency().getTotalCount()).sum();
+        }
+
+        public long errors() {
+            return this.operations.values().stream().mapToLong(Stats::getErrors).sum();
+        }
+
+        public double throughput() {
+            return (this.completed() - this.errors()) * (double) TimeUnit.SECONDS.toNanos(1) / this.elapsedNanos;
+        }
+
+        public String format() {
+            StringBuilder report = new StringBuilder(String.format(
+                    "offered %.0f/s, achieved %.1f/s, scheduled %d, completed %d, errors %d, max in flight %d, unfinished %d%n",
+                    this.offeredRate, this.throughput(), this.scheduled, this.completed(), this.errors(),
+                    this.maxInFlight, this.unfinished));
+            report.append(String.format("%-8s %9s %7s %10s %10s %10s %10s%n", "op", "count", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+            Histogram all = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+            this.operations.forEach((name, stats) -> {
+                all.add(stats.getLatency());
+                report.append(line(name, stats.getLatency(), stats.getErrors()));
+            });
+            report.append(line("all", all, this.errors()));
+            return report.toString();
+        }
+
+        private static String line(String name, Histogram latency, long errors) {
+            return String.format("%-8s %9d %7d %10.2f %10.2f %10.2f %10.2f%n", name, latency.getTotalCount(), errors,
+                    millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(99)),
+                    millis(latency.getValueAtPercentile(99.9)), millis(latency.getMaxValue()));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
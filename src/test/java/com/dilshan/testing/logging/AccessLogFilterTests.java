@@ -0,0 +1,120 @@
+package com.dilshan.testing.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.dilshan.testing.config.AccessLogProperties;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AccessLogFilterTests {
+
+    private AccessLogProperties accessLogProperties;
+    private AccessLogFilter accessLogFilter;
+    private ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    public void setup() {
+        this.accessLogProperties = new AccessLogProperties();
+        this.accessLogProperties.setSlowThreshold(Duration.ofMinutes(1));
+        this.accessLogFilter = new AccessLogFilter(this.accessLogProperties);
+        this.appender = new ListAppender<>();
+        this.appender.start();
+        ((Logger) LoggerFactory.getLogger(AccessLogFilter.LOGGER_NAME)).addAppender(this.appender);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ((Logger) LoggerFactory.getLogger(AccessLogFilter.LOGGER_NAME)).detachAppender(this.appender);
+    }
+
+    //JUnit test for a fast successful request with a sample rate of 0
+    @DisplayName("JUnit test for a fast successful request with a sample rate of 0")
+    @Test
+    public void givenSampleRateZero_whenFastRequest_thenNothingLogged() throws Exception {
+
+        //given - precondition or setup
+        this.accessLogProperties.setSampleRate(0);
+
+        //when - action or the behaviour to be tested
+        this.accessLogFilter.doFilter(new MockHttpServletRequest("GET", "/api/employees/id/1"),
+                new MockHttpServletResponse(), new MockFilterChain());
+
+        //then -verify the output
+        assertThat(this.appender.list).isEmpty();
+    }
+
+    //JUnit test for a server error with a sample rate of 0
+    @DisplayName("JUnit test for a server error with a sample rate of 0")
+    @Test
+    public void givenSampleRateZero_whenServerError_thenRequestLogged() throws Exception {
+
+        //given - precondition or setup
+        this.accessLogProperties.setSampleRate(0);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(503);
+
+        //when - action or the behaviour to be tested
+        this.accessLogFilter.doFilter(new MockHttpServletRequest("POST", "/api/employees"), response, new MockFilterChain());
+
+        //then -verify the output
+        assertThat(this.appender.list).hasSize(1);
+    }
+
+    //JUnit test for an exception escaping the filter chain with a sample rate of 0
+    @DisplayName("JUnit test for an exception escaping the filter chain with a sample rate of 0")
+    @Test
+    public void givenSampleRateZero_whenChainThrows_thenLogServerErrorAndRethrow() {
+
+        //given - precondition or setup
+        this.accessLogProperties.setSampleRate(0);
+        FilterChain failingChain = (request, response) -> {
+            throw new IllegalStateException("Unhandled");
+        };
+
+        //when - action or the behaviour to be tested
+        assertThrows(IllegalStateException.class, () -> this.accessLogFilter.doFilter(
+                new MockHttpServletRequest("GET", "/api/employees/id/1"), new MockHttpServletResponse(), failingChain));
+
+        //then -verify the output
+        //The response still has its default 200, the container writes the 500 later
+        assertThat(this.appender.list).hasSize(1);
+        assertThat(this.appender.list.get(0).getKeyValuePairs())
+                .extracting(pair -> pair.key, pair -> pair.value)
+                .contains(tuple("status", 500));
+    }
+
+    //JUnit test for a sampled request
+    @DisplayName("JUnit test for a sampled request")
+    @Test
+    public void givenSampleRateOne_whenRequest_thenLogRoutePatternAsKeyValues() throws Exception {
+
+        //given - precondition or setup
+        this.accessLogProperties.setSampleRate(1);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/employees/id/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/employees/id/{id}");
+
+        //when - action or the behaviour to be tested
+        this.accessLogFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        //then -verify the output
+        assertThat(this.appender.list).hasSize(1);
+        assertThat(this.appender.list.get(0).getKeyValuePairs())
+                .extracting(pair -> pair.key, pair -> pair.value)
+                .contains(tuple("method", "GET"), tuple("uri", "/api/employees/id/{id}"), tuple("status", 200));
+    }
+}
@@ -2,6 +2,9 @@ package com.dilshan.testing.repository;
 
 import com.dilshan.testing.testcontainer.AbstractContainerBaseTest;
 import com.dilshan.testing.model.Employee;
+import com.dilshan.testing.dto.EmployeePatch;
+import com.dilshan.testing.dto.EmployeeFilter;
+import com.dilshan.testing.dto.EmployeeSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -9,9 +12,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.AutoConfigureTestEntityManager;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -36,6 +46,9 @@ public class EmployeeRepositoryITests extends AbstractContainerBaseTest {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private TestEntityManager testEntityManager;
+
     //JUnit test for save employee operation
     @DisplayName("JUnit test for save employee operation")
     @Test
@@ -77,6 +90,122 @@ public class EmployeeRepositoryITests extends AbstractContainerBaseTest {
         assertThat(employeeList.size()).isEqualTo(2);
     }
 
+    //JUnit test for keyset pagination operation
+    @DisplayName("JUnit test for keyset pagination operation")
+    @Test
+    public void givenEmployeesList_whenFindSummariesByIdGreaterThan_thenReturnNextRowsInIdOrder() {
+
+        //given - precondition or setup
+        Employee employee2 = Employee.builder()
+                .firstName("Slayer")
+                .lastName("Araya")
+                .email("666@gmail.com")
+                .build();
+        Employee employee3 = Employee.builder()
+                .firstName("Dimmu")
+                .lastName("Borgir")
+                .email("dimmu@gmail.com")
+                .build();
+        this.employeeRepository.saveAll(List.of(employee, employee2, employee3));
+
+        //when - action or the behaviour to be tested
+        List<EmployeeSummary> summaries = this.employeeRepository.findSummariesByIdGreaterThanOrderByIdAsc(employee.getId(), Limit.of(1));
+
+        //then -verify the output
+        assertThat(summaries).hasSize(1);
+        assertThat(summaries.get(0).id()).isEqualTo(employee2.getId());
+    }
+
+    //JUnit test for keyset pagination over a mixed sort with ties
+    @DisplayName("JUnit test for keyset pagination over a mixed sort with ties")
+    @Test
+    public void givenTiedSortValues_whenPageWithKeysetCursor_thenReturnEveryRowOnce() {
+
+        //given - precondition or setup
+        //Ties on the last name and on both names, so pages end in the middle of each group
+        List<Employee> employees = new ArrayList<>();
+        for (String lastName : List.of("KeysetA", "KeysetB", "KeysetC")) {
+            for (String firstName : List.of("Dilshan", "Dilshan", "Slayer")) {
+                employees.add(Employee.builder()
+                        .firstName(firstName)
+                        .lastName(lastName)
+                        .email(String.format("%s.%s.%d@gmail.com", lastName, firstName, employees.size()).toLowerCase(Locale.ROOT))
+                        .build());
+            }
+        }
+        this.employeeRepository.saveAllAndFlush(employees);
+        Specification<Employee> filter = EmployeeSpecifications.where(List.of(EmployeeFilter.parse("lastName:prefix:Keyset")));
+        Sort sort = EmployeeSpecifications.keysetSort(Sort.by(Sort.Order.desc("lastName"), Sort.Order.asc("firstName")));
+        List<Long> expected = this.employeeRepository.findSummaries(filter, sort, Limit.of(100)).stream()
+                .map(EmployeeSummary::id)
+                .toList();
+
+        //when - action or the behaviour to be tested
+        List<Long> paged = new ArrayList<>();
+        List<EmployeeSummary> page = this.employeeRepository.findSummaries(filter, sort, Limit.of(2));
+        while (!page.isEmpty()) {
+            page.forEach(summary -> paged.add(summary.id()));
+            List<String> key = EmployeeSpecifications.keyOf(page.get(page.size() - 1), sort);
+            page = this.employeeRepository.findSummaries(filter.and(EmployeeSpecifications.after(sort, key)), sort, Limit.of(2));
+        }
+
+        //then -verify the output
+        assertThat(expected).hasSize(employees.size());
+        assertThat(expected.get(0)).isEqualTo(employees.get(6).getId());
+        //No row skipped or repeated, in the order of the single query
+        assertThat(paged).containsExactlyElementsOf(expected);
+    }
+
+    //JUnit test for estimated count operation
+    @DisplayName("JUnit test for estimated count operation")
+    @Test
+    public void givenInsertedEmployees_whenEstimateCount_thenReturnUpdatedTableStatistics() {
+
+        //given - precondition or setup
+        this.employeeRepository.saveAndFlush(employee);
+        //Also fills the information_schema cache a stale read would answer from
+        Long before = this.employeeRepository.estimateCount();
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            employees.add(Employee.builder()
+                    .firstName("Estimate")
+                    .lastName("Employee")
+                    .email(String.format("estimate%d@gmail.com", i))
+                    .build());
+        }
+        this.employeeRepository.saveAllAndFlush(employees);
+
+        //when - action or the behaviour to be tested
+        Long estimate = this.employeeRepository.estimateCount();
+
+        //then -verify the output
+        assertThat(before).isNotNull();
+        assertThat(estimate).isGreaterThan(before);
+    }
+
+    //JUnit test for streaming all employees operation
+    @DisplayName("JUnit test for streaming all employees operation")
+    @Test
+    public void givenEmployeesList_whenStreamAll_thenReturnEveryEmployee() {
+
+        //given - precondition or setup
+        Employee employee2 = Employee.builder()
+                .firstName("Slayer")
+                .lastName("Araya")
+                .email("666@gmail.com")
+                .build();
+        this.employeeRepository.saveAll(List.of(employee, employee2));
+
+        //when - action or the behaviour to be tested
+        List<Employee> employeeList;
+        try (Stream<Employee> employees = this.employeeRepository.streamAll()) {
+            employeeList = employees.toList();
+        }
+
+        //then -verify the output
+        assertThat(employeeList).extracting(Employee::getEmail).contains(employee.getEmail(), employee2.getEmail());
+    }
+
     //JUnit test for get employee by id operation
     @DisplayName("JUnit test for get employee by id operation")
     @Test
@@ -219,4 +348,69 @@ public class EmployeeRepositoryITests extends AbstractContainerBaseTest {
         //then -verify the output
         assertThat(savedEmployee).isNotNull();
     }
+
+    //JUnit test for name search returning several employees
+    @DisplayName("JUnit test for name search returning several employees")
+    @Test
+    public void givenEmployeesWithSameName_whenFindByLastNameAndFirstName_thenReturnEverySummary() {
+
+        //given - precondition or setup
+        Employee employee2 = Employee.builder()
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email("other@gmail.com")
+                .build();
+        this.employeeRepository.saveAll(List.of(employee, employee2));
+
+        //when - action or the behaviour to be tested
+        List<EmployeeSummary> summaries = this.employeeRepository.findByLastNameAndFirstNameAndIdGreaterThanOrderByIdAsc(
+                employee.getLastName(), employee.getFirstName(), 0L, Limit.of(10));
+
+        //then -verify the output
+        assertThat(summaries).extracting(EmployeeSummary::email).containsExactly(employee.getEmail(), employee2.getEmail());
+    }
+
+    //JUnit test for patch employee operation
+    @DisplayName("JUnit test for patch employee operation")
+    @Test
+    public void givenEmployeeObject_whenPatch_thenUpdateOnlySuppliedColumns() {
+
+        //given - precondition or setup
+        this.employeeRepository.save(employee);
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        //when - action or the behaviour to be tested
+        int updated = this.employeeRepository.patch(employee.getId(), new EmployeePatch("Nilanga", null, null));
+        int missing = this.employeeRepository.patch(employee.getId() + 1000, new EmployeePatch("Nilanga", null, null));
+        Employee patchedEmployee = this.employeeRepository.findById(employee.getId()).get();
+
+        //then -verify the output
+        assertThat(updated).isEqualTo(1);
+        assertThat(missing).isZero();
+        assertThat(patchedEmployee.getFirstName()).isEqualTo("Nilanga");
+        assertThat(patchedEmployee.getLastName()).isEqualTo(employee.getLastName());
+        assertThat(patchedEmployee.getEmail()).isEqualTo(employee.getEmail());
+        assertThat(patchedEmployee.getVersion()).isEqualTo(employee.getVersion() + 1);
+    }
+
+    //JUnit test for single statement delete employee operation
+    @DisplayName("JUnit test for single statement delete employee operation")
+    @Test
+    public void givenEmployeeObject_whenDeleteEmployeeById_thenReturnAffectedRows() {
+
+        //given - precondition or setup
+        this.employeeRepository.save(employee);
+        this.testEntityManager.flush();
+        this.testEntityManager.clear();
+
+        //when - action or the behaviour to be tested
+        int deleted = this.employeeRepository.deleteEmployeeById(employee.getId());
+        int missing = this.employeeRepository.deleteEmployeeById(employee.getId());
+
+        //then -verify the output
+        assertThat(deleted).isEqualTo(1);
+        assertThat(missing).isZero();
+        assertThat(this.employeeRepository.findById(employee.getId())).isEmpty();
+    }
 }
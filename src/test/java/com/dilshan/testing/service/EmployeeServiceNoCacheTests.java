@@ -0,0 +1,12 @@
+package com.dilshan.testing.service;
+
+/**
+ * Runs every {@link EmployeeServiceTests} test with the employee cache switched off.
+ */
+public class EmployeeServiceNoCacheTests extends EmployeeServiceTests {
+
+    @Override
+    protected boolean cacheEnabled() {
+        return false;
+    }
+}
@@ -1,9 +1,23 @@
 package com.dilshan.testing.service;
 
-import com.dilshan.testing.exception.ResourceNotFound;
+import com.dilshan.testing.cache.EmployeeCache;
+import com.dilshan.testing.cache.EmployeeExistenceFilter;
+import com.dilshan.testing.cache.EmployeeListSnapshot;
+import com.dilshan.testing.cache.EmployeeCounter;
+import com.dilshan.testing.cache.EmployeeSearchIndex;
+import com.dilshan.testing.config.EmployeeProperties;
+import com.dilshan.testing.dto.CursorPage;
+import com.dilshan.testing.dto.EmployeeCount;
+import com.dilshan.testing.dto.EmployeePatch;
+import com.dilshan.testing.dto.EmployeeSummary;
+import com.dilshan.testing.exception.BatchCreateFailed;
+import com.dilshan.testing.exception.InvalidRequest;
+import com.dilshan.testing.exception.ResourceAlreadyExists;
 import com.dilshan.testing.model.Employee;
 import com.dilshan.testing.repository.EmployeeRepository;
 import com.dilshan.testing.service.impl.EmployeeServiceImpl;
+import com.dilshan.testing.util.CursorCodec;
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,11 +25,25 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -28,13 +56,44 @@ public class EmployeeServiceTests {
 
     @Mock
     private EmployeeRepository employeeRepository;
+    @Spy
+    private EmployeeProperties employeeProperties = new EmployeeProperties();
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Spy
+    private EmployeeCache employeeCache = newEmployeeCache();
+    @Mock
+    private EmployeeExistenceFilter existenceFilter;
+    @Mock
+    private EmployeeListSnapshot listSnapshot;
+    @Mock
+    private EmployeeSearchIndex searchIndex;
+    @Mock
+    private EmployeeCounter employeeCounter;
     @InjectMocks
     private EmployeeServiceImpl employeeService;
 
     private Employee employee;
 
+    /**
+     * @return whether the service under test runs with the employee cache, overridden to run every test with it off
+     */
+    protected boolean cacheEnabled() {
+        return true;
+    }
+
+    private EmployeeCache newEmployeeCache() {
+        EmployeeProperties properties = new EmployeeProperties();
+        properties.getCache().setEnabled(this.cacheEnabled());
+        return new EmployeeCache(properties);
+    }
+
     @BeforeEach
     public void setup() {
+        lenient().when(existenceFilter.mightContainId(any())).thenReturn(true);
+        lenient().when(existenceFilter.mightContainEmail(any())).thenReturn(true);
         employee = Employee.builder()
                 .id(1L)
                 .firstName("Dilshan")
@@ -49,14 +108,18 @@ public class EmployeeServiceTests {
     public void givenEmployeeObject_whenSaveEmployee_thenReturnEmployeeObject() {
 
         //given - precondition or setup
-        given(employeeRepository.findByEmail(employee.getEmail())).willReturn(Optional.empty());
-        given(employeeRepository.save(employee)).willReturn(employee);
+        given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
 
         //when - action or the behaviour to be tested
         Employee savedEmployee = this.employeeService.saveEmployee(employee);
 
         //then -verify the output
         assertThat(savedEmployee).isNotNull();
+        verify(employeeRepository, never()).findByEmail(anyString());
+        verify(existenceFilter, times(1)).add(savedEmployee);
+        verify(listSnapshot, times(1)).bumpVersion();
+        verify(searchIndex, times(1)).add(savedEmployee);
+        verify(employeeCounter, times(1)).add(1);
     }
 
     //JUnit test for save employee method which throws exception
@@ -65,13 +128,183 @@ public class EmployeeServiceTests {
     public void givenExistingEmail_whenSaveEmployee_thenThrowsException() {
 
         //given - precondition or setup
-        given(employeeRepository.findByEmail(employee.getEmail())).willReturn(Optional.of(employee));
+        given(employeeRepository.saveAndFlush(employee)).willThrow(new DataIntegrityViolationException(
+                "Duplicate entry 'test@gmail.com' for key 'employees.uk_employees_email'"));
 
         //when - action or the behaviour to be tested
-        assertThrows(ResourceNotFound.class, () -> this.employeeService.saveEmployee(employee));
+        assertThrows(ResourceAlreadyExists.class, () -> this.employeeService.saveEmployee(employee));
 
         //then
-        verify(employeeRepository, never()).save(any(Employee.class));
+        verify(employeeRepository, never()).findByEmail(anyString());
+    }
+
+    //JUnit test for save employee method with a violation of another constraint
+    @DisplayName("JUnit test for save employee method with a violation of another constraint")
+    @Test
+    public void givenOtherConstraintViolation_whenSaveEmployee_thenRethrowException() {
+
+        //given - precondition or setup
+        given(employeeRepository.saveAndFlush(employee)).willThrow(new DataIntegrityViolationException(
+                "Column 'first_name' cannot be null"));
+
+        //when - action or the behaviour to be tested
+        assertThrows(DataIntegrityViolationException.class, () -> this.employeeService.saveEmployee(employee));
+    }
+
+    //JUnit test for save employees method
+    @DisplayName("JUnit test for save employees method")
+    @Test
+    public void givenMoreEmployeesThanChunkSize_whenSaveEmployees_thenInsertEachChunkInItsOwnTransaction() {
+
+        //given - precondition or setup
+        employeeProperties.getBatch().setChunkSize(2);
+        Employee employee1 = Employee.builder()
+                .firstName("Slayer")
+                .lastName("Araya")
+                .email("666@gmail.com")
+                .build();
+        Employee employee2 = Employee.builder()
+                .firstName("Dimmu")
+                .lastName("Borgir")
+                .email("dimmu@gmail.com")
+                .build();
+        given(entityManager.unwrap(Session.class)).willReturn(mock(Session.class));
+        willAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).given(transactionTemplate).executeWithoutResult(any());
+
+        //when - action or the behaviour to be tested
+        int saved = this.employeeService.saveEmployees(List.of(employee, employee1, employee2).iterator());
+
+        //then -verify the output
+        assertThat(saved).isEqualTo(3);
+        assertThat(employee.getId()).isNull();
+        verify(transactionTemplate, times(2)).executeWithoutResult(any());
+        verify(entityManager, times(3)).persist(any(Employee.class));
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+    }
+
+    //JUnit test for save employees method with a duplicate email in the second chunk
+    @DisplayName("JUnit test for save employees method with a duplicate email in the second chunk")
+    @Test
+    public void givenDuplicateEmailInSecondChunk_whenSaveEmployees_thenThrowBatchCreateFailedWithCommittedCount() {
+
+        //given - precondition or setup
+        employeeProperties.getBatch().setChunkSize(1);
+        Employee duplicate = Employee.builder()
+                .firstName("Slayer")
+                .lastName("Araya")
+                .email(employee.getEmail())
+                .build();
+        given(entityManager.unwrap(Session.class)).willReturn(mock(Session.class));
+        //The raw exception of the explicit flush, not a DataAccessException
+        willDoNothing().willThrow(new ConstraintViolationException("could not execute batch",
+                        new SQLIntegrityConstraintViolationException("Duplicate entry for key 'employees.uk_employees_email'"),
+                        Employee.EMAIL_CONSTRAINT))
+                .given(entityManager).flush();
+        willAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).given(transactionTemplate).executeWithoutResult(any());
+
+        //when - action or the behaviour to be tested
+        BatchCreateFailed failed = assertThrows(BatchCreateFailed.class,
+                () -> this.employeeService.saveEmployees(List.of(employee, duplicate).iterator()));
+
+        //then -verify the output
+        assertThat(failed.getCreated()).isEqualTo(1);
+        assertThat(failed.getCause()).isInstanceOf(ResourceAlreadyExists.class);
+        verify(employeeCounter, times(1)).add(1);
+    }
+
+    //JUnit test for save new employees method
+    @DisplayName("JUnit test for save new employees method")
+    @Test
+    public void givenTakenEmails_whenSaveNewEmployees_thenInsertOthersInOneTransactionAndRejectTaken() {
+
+        //given - precondition or setup
+        Employee taken = Employee.builder()
+                .firstName("Slayer")
+                .lastName("Araya")
+                .email("666@GMAIL.com")
+                .build();
+        Employee repeated = Employee.builder()
+                .firstName("Dimmu")
+                .lastName("Borgir")
+                .email(employee.getEmail())
+                .build();
+        given(employeeRepository.findExistingEmails(List.of(employee.getEmail(), "666@GMAIL.com", employee.getEmail())))
+                .willReturn(List.of("666@gmail.com"));
+        given(entityManager.unwrap(Session.class)).willReturn(mock(Session.class));
+        willAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).given(transactionTemplate).executeWithoutResult(any());
+
+        //when - action or the behaviour to be tested
+        List<RuntimeException> outcomes = this.employeeService.saveNewEmployees(List.of(employee, taken, repeated));
+
+        //then -verify the output
+        //Emails compare case-insensitively, like the MySQL collation, and the first of two equal emails wins
+        assertThat(outcomes).hasSize(3);
+        assertThat(outcomes.get(0)).isNull();
+        assertThat(outcomes.get(1)).isInstanceOf(ResourceAlreadyExists.class);
+        assertThat(outcomes.get(2)).isInstanceOf(ResourceAlreadyExists.class);
+        verify(transactionTemplate, times(1)).executeWithoutResult(any());
+        verify(entityManager, times(1)).persist(employee);
+        verify(employeeCounter, times(1)).add(1);
+        verify(employeeRepository, never()).saveAndFlush(any(Employee.class));
+    }
+
+    //JUnit test for save new employees method when the chunk insert fails
+    @DisplayName("JUnit test for save new employees method when the chunk insert fails")
+    @Test
+    public void givenChunkFailure_whenSaveNewEmployees_thenSaveOneByOneAndReturnEachOutcome() {
+
+        //given - precondition or setup
+        Employee employee1 = Employee.builder()
+                .firstName("Slayer")
+                .lastName("Araya")
+                .email("666@gmail.com")
+                .build();
+        Employee employee2 = Employee.builder()
+                .firstName("D".repeat(300))
+                .lastName("Borgir")
+                .email("dimmu@gmail.com")
+                .build();
+        Employee employee3 = Employee.builder()
+                .firstName("Nilanga")
+                .lastName("Wijetunga")
+                .email("nilanga@gmail.com")
+                .build();
+        given(employeeRepository.findExistingEmails(anyList())).willReturn(List.of());
+        willThrow(new DataIntegrityViolationException("Data too long for column 'first_name'"))
+                .given(transactionTemplate).executeWithoutResult(any());
+        given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
+        //An email taken after the existence query
+        given(employeeRepository.saveAndFlush(employee1))
+                .willThrow(new DataIntegrityViolationException("Duplicate entry for key 'employees.uk_employees_email'"));
+        given(employeeRepository.saveAndFlush(employee2))
+                .willThrow(new DataIntegrityViolationException("Data too long for column 'first_name'"));
+        given(employeeRepository.saveAndFlush(employee3)).willReturn(employee3);
+
+        //when - action or the behaviour to be tested
+        List<RuntimeException> outcomes = this.employeeService.saveNewEmployees(List.of(employee, employee1, employee2, employee3));
+
+        //then -verify the output
+        assertThat(outcomes).hasSize(4);
+        assertThat(outcomes.get(0)).isNull();
+        assertThat(outcomes.get(1)).isInstanceOf(ResourceAlreadyExists.class);
+        assertThat(outcomes.get(2)).isInstanceOf(DataIntegrityViolationException.class);
+        //Rows after a failed one are still saved
+        assertThat(outcomes.get(3)).isNull();
+        assertThat(employee.getId()).isNull();
+        verify(employeeCounter, times(2)).add(1);
     }
 
     //JUnit test for get all employees
@@ -112,6 +345,295 @@ public class EmployeeServiceTests {
         assertThat(employeeList.size()).isEqualTo(0);
     }
 
+    //JUnit test for get all employee summaries
+    @DisplayName("JUnit test for get all employee summaries")
+    @Test
+    public void givenSummaryList_whenGetEmployeeSummaries_thenReturnSummaryList() {
+
+        //given - precondition or setup
+        given(employeeRepository.findAllSummaries()).willReturn(List.of(
+                new EmployeeSummary(1L, "Dilshan", "Wijetunga", "test@gmail.com"),
+                new EmployeeSummary(2L, "Slayer", "Araya", "666@gmail.com")));
+
+        //when - action or the behaviour to be tested
+        List<EmployeeSummary> summaries = this.employeeService.getEmployeeSummaries();
+
+        //then -verify the output
+        assertThat(summaries).hasSize(2);
+        verify(employeeRepository, never()).findAll();
+    }
+
+    //JUnit test for get employees page with a next page
+    @DisplayName("JUnit test for get employees page with a next page")
+    @Test
+    public void givenMoreRowsThanPageSize_whenGetEmployees_thenReturnPageWithNextCursor() {
+
+        //given - precondition or setup
+        EmployeeSummary summary = new EmployeeSummary(1L, "Dilshan", "Wijetunga", "test@gmail.com");
+        EmployeeSummary summary1 = new EmployeeSummary(2L, "Slayer", "Araya", "666@gmail.com");
+        given(employeeRepository.findSummariesByIdGreaterThanOrderByIdAsc(0L, Limit.of(2))).willReturn(List.of(summary, summary1));
+
+        //when - action or the behaviour to be tested
+        CursorPage<EmployeeSummary> page = this.employeeService.getEmployees(null, 1);
+
+        //then -verify the output
+        assertThat(page.content()).containsExactly(summary);
+        assertThat(page.nextCursor()).isEqualTo(CursorCodec.encodeId(summary.id()));
+    }
+
+    //JUnit test for get employees page when the cursor points to the last page
+    @DisplayName("JUnit test for get employees page when the cursor points to the last page")
+    @Test
+    public void givenCursorOfLastPage_whenGetEmployees_thenReturnPageWithoutNextCursor() {
+
+        //given - precondition or setup
+        given(employeeRepository.findSummariesByIdGreaterThanOrderByIdAsc(1L, Limit.of(51)))
+                .willReturn(List.of(new EmployeeSummary(2L, "Slayer", "Araya", "666@gmail.com")));
+
+        //when - action or the behaviour to be tested
+        CursorPage<EmployeeSummary> page = this.employeeService.getEmployees(CursorCodec.encodeId(1L), null);
+
+        //then -verify the output
+        assertThat(page.content()).hasSize(1);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    //JUnit test for get employees page with a page size above the hard cap
+    @DisplayName("JUnit test for get employees page with a page size above the hard cap")
+    @Test
+    public void givenPageSizeAboveMax_whenGetEmployees_thenClampToMaxSize() {
+
+        //given - precondition or setup
+        given(employeeRepository.findSummariesByIdGreaterThanOrderByIdAsc(0L, Limit.of(501))).willReturn(Collections.emptyList());
+
+        //when - action or the behaviour to be tested
+        CursorPage<EmployeeSummary> page = this.employeeService.getEmployees(null, 10_000);
+
+        //then -verify the output
+        assertThat(page.content()).isEmpty();
+        verify(employeeRepository, times(1)).findSummariesByIdGreaterThanOrderByIdAsc(0L, Limit.of(501));
+    }
+
+    //JUnit test for get employees page with a malformed cursor
+    @DisplayName("JUnit test for get employees page with a malformed cursor")
+    @Test
+    public void givenMalformedCursor_whenGetEmployees_thenThrowsException() {
+
+        //when - action or the behaviour to be tested
+        assertThrows(InvalidRequest.class, () -> this.employeeService.getEmployees("not-a-cursor", null));
+
+        //then
+        verifyNoInteractions(employeeRepository);
+    }
+
+    //JUnit test for search employees by name with several matches
+    @DisplayName("JUnit test for search employees by name with several matches")
+    @Test
+    public void givenSeveralEmployeesWithSameName_whenSearchEmployees_thenReturnPageWithNextCursor() {
+
+        //given - precondition or setup
+        EmployeeSummary summary1 = new EmployeeSummary(1L, "Dilshan", "Wijetunga", "test@gmail.com");
+        EmployeeSummary summary2 = new EmployeeSummary(5L, "Dilshan", "Wijetunga", "other@gmail.com");
+        EmployeeSummary summary3 = new EmployeeSummary(9L, "Dilshan", "Wijetunga", "third@gmail.com");
+        given(employeeRepository.findByLastNameAndFirstNameAndIdGreaterThanOrderByIdAsc("Wijetunga", "Dilshan", 0L, Limit.of(3)))
+                .willReturn(List.of(summary1, summary2, summary3));
+
+        //when - action or the behaviour to be tested
+        CursorPage<EmployeeSummary> page = this.employeeService.searchEmployees("Dilshan", "Wijetunga", null, 2);
+
+        //then -verify the output
+        assertThat(page.content()).containsExactly(summary1, summary2);
+        assertThat(page.nextCursor()).isEqualTo(CursorCodec.encodeId(5L));
+    }
+
+    //JUnit test for search employees by prefix served from the search index
+    @DisplayName("JUnit test for search employees by prefix served from the search index")
+    @Test
+    public void givenLoadedSearchIndex_whenSearchEmployeesByPrefix_thenReturnMatchesWithoutQuery() {
+
+        //given - precondition or setup
+        EmployeeSummary summary = new EmployeeSummary(1L, "Dilshan", "Wijetunga", "test@gmail.com");
+        given(searchIndex.isReady()).willReturn(true);
+        given(searchIndex.search("dil", 10)).willReturn(List.of(summary));
+
+        //when - action or the behaviour to be tested
+        List<EmployeeSummary> employees = this.employeeService.searchEmployeesByPrefix(" dil ", 10);
+
+        //then -verify the output
+        assertThat(employees).containsExactly(summary);
+        verifyNoInteractions(employeeRepository);
+        assertThrows(InvalidRequest.class, () -> this.employeeService.searchEmployeesByPrefix("  ", 10));
+    }
+
+    //JUnit test for search employees by prefix before the search index is loaded
+    @DisplayName("JUnit test for search employees by prefix before the search index is loaded")
+    @Test
+    public void givenSearchIndexNotReady_whenSearchEmployeesByPrefix_thenQueryRepository() {
+
+        //given - precondition or setup
+        EmployeeSummary byLastName = new EmployeeSummary(1L, "Dilshan", "Wijetunga", "test@gmail.com");
+        EmployeeSummary byLastNameAndEmail = new EmployeeSummary(2L, "Nilanga", "Wijesinghe", "wije@gmail.com");
+        EmployeeSummary byFirstName = new EmployeeSummary(3L, "Wijaya", "Araya", "slayer@gmail.com");
+        given(searchIndex.isReady()).willReturn(false);
+        given(employeeRepository.findSummariesByFirstNameStartingWithOrderByFirstNameAscIdAsc("wij", Limit.of(50)))
+                .willReturn(List.of(byFirstName));
+        given(employeeRepository.findSummariesByLastNameStartingWithOrderByLastNameAscIdAsc("wij", Limit.of(50)))
+                .willReturn(List.of(byLastNameAndEmail, byLastName));
+        given(employeeRepository.findSummariesByEmailStartingWithOrderByEmailAscIdAsc("wij", Limit.of(50)))
+                .willReturn(List.of(byLastNameAndEmail));
+
+        //when - action or the behaviour to be tested
+        List<EmployeeSummary> employees = this.employeeService.searchEmployeesByPrefix("wij", null);
+
+        //then -verify the output
+        //Same order as the index, by the smallest matching field and then by id, each employee once
+        assertThat(employees).containsExactly(byFirstName, byLastNameAndEmail, byLastName);
+        verify(searchIndex, never()).search(anyString(), anyInt());
+    }
+
+    //JUnit test for count employees method with an exact count
+    @DisplayName("JUnit test for count employees method with an exact count")
+    @Test
+    public void givenLoadedCounter_whenCountEmployees_thenReturnCounterWithoutQuery() {
+
+        //given - precondition or setup
+        given(employeeCounter.isLoaded()).willReturn(true);
+        given(employeeCounter.get()).willReturn(42L);
+
+        //when - action or the behaviour to be tested
+        EmployeeCount count = this.employeeService.countEmployees(EmployeeCount.Accuracy.EXACT);
+
+        //then -verify the output
+        assertThat(count).isEqualTo(new EmployeeCount(42L, EmployeeCount.Accuracy.EXACT));
+        verifyNoInteractions(employeeRepository);
+    }
+
+    //JUnit test for count employees method with an estimated count
+    @DisplayName("JUnit test for count employees method with an estimated count")
+    @Test
+    public void givenTableStatistics_whenCountEmployeesEstimated_thenReturnEstimateOrExactFallback() {
+
+        //given - precondition or setup
+        given(employeeRepository.estimateCount()).willReturn(40L, (Long) null);
+        given(employeeCounter.isLoaded()).willReturn(false);
+        given(employeeRepository.count()).willReturn(42L);
+
+        //when - action or the behaviour to be tested
+        EmployeeCount estimated = this.employeeService.countEmployees(EmployeeCount.Accuracy.ESTIMATED);
+        EmployeeCount fallback = this.employeeService.countEmployees(EmployeeCount.Accuracy.ESTIMATED);
+
+        //then -verify the output
+        assertThat(estimated).isEqualTo(new EmployeeCount(40L, EmployeeCount.Accuracy.ESTIMATED));
+        //No statistics for the table, counted instead
+        assertThat(fallback).isEqualTo(new EmployeeCount(42L, EmployeeCount.Accuracy.EXACT));
+    }
+
+    //JUnit test for query employees method with a next page
+    @DisplayName("JUnit test for query employees method with a next page")
+    @Test
+    public void givenIndexedFilterAndSort_whenQueryEmployees_thenReturnPageWithCursorOfTheSortValues() {
+
+        //given - precondition or setup
+        EmployeeSummary summary1 = new EmployeeSummary(7L, "Dilshan", "Wije", "test@gmail.com");
+        EmployeeSummary summary2 = new EmployeeSummary(3L, "Dimmu", "Wije", "dimmu@gmail.com");
+        EmployeeSummary summary3 = new EmployeeSummary(5L, "Nilanga", "Wije", "nilanga@gmail.com");
+        Sort sort = Sort.by("lastName", "firstName").and(Sort.by("id"));
+        given(employeeRepository.findSummaries(any(), eq(sort), eq(Limit.of(3)))).willReturn(List.of(summary1, summary2, summary3));
+
+        //when - action or the behaviour to be tested
+        CursorPage<EmployeeSummary> page = this.employeeService.queryEmployees(
+                List.of("lastName:prefix:Wi", "version:ge:0"), Sort.by("lastName", "firstName"), null, 2);
+
+        //then -verify the output
+        assertThat(page.content()).containsExactly(summary1, summary2);
+        assertThat(CursorCodec.decodeKeyset(page.nextCursor(), sort.toString())).containsExactly("Wije", "Dimmu", "3");
+    }
+
+    //JUnit test for query employees method with a first name filter
+    @DisplayName("JUnit test for query employees method with a first name filter")
+    @Test
+    public void givenFirstNamePrefix_whenQueryEmployees_thenQueryRepository() {
+
+        //given - precondition or setup
+        EmployeeSummary summary = new EmployeeSummary(7L, "Dilshan", "Wije", "test@gmail.com");
+        given(employeeRepository.findSummaries(any(), eq(Sort.by("id")), eq(Limit.of(3)))).willReturn(List.of(summary));
+
+        //when - action or the behaviour to be tested
+        CursorPage<EmployeeSummary> page = this.employeeService.queryEmployees(
+                List.of("firstName:prefix:Dil"), Sort.unsorted(), null, 2);
+
+        //then -verify the output
+        //idx_employees_first_name serves the prefix on its own
+        assertThat(page.content()).containsExactly(summary);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    //JUnit test for query employees method with an edited cursor
+    @DisplayName("JUnit test for query employees method with an edited cursor")
+    @Test
+    public void givenCursorWithoutEverySortValue_whenQueryEmployees_thenThrowsException() {
+
+        //given - precondition or setup
+        Sort sort = Sort.by("lastName", "firstName").and(Sort.by("id"));
+        String shortCursor = CursorCodec.encodeKeyset(sort.toString(), List.of("Wije"));
+        String badIdCursor = CursorCodec.encodeKeyset(sort.toString(), List.of("Wije", "Dimmu", "three"));
+
+        //when - action or the behaviour to be tested
+        assertThrows(InvalidRequest.class, () -> this.employeeService.queryEmployees(
+                List.of("lastName:prefix:Wi"), Sort.by("lastName", "firstName"), shortCursor, 2));
+        assertThrows(InvalidRequest.class, () -> this.employeeService.queryEmployees(
+                List.of("lastName:prefix:Wi"), Sort.by("lastName", "firstName"), badIdCursor, 2));
+
+        //then
+        verifyNoInteractions(employeeRepository);
+    }
+
+    //JUnit test for query employees method without a filter on an indexed field
+    @DisplayName("JUnit test for query employees method without a filter on an indexed field")
+    @Test
+    public void givenOnlyUnindexedFilters_whenQueryEmployees_thenThrowsException() {
+
+        //when - action or the behaviour to be tested
+        assertThrows(InvalidRequest.class, () -> this.employeeService.queryEmployees(
+                List.of("version:eq:3", "version:gt:2"), Sort.unsorted(), null, null));
+        assertThrows(InvalidRequest.class, () -> this.employeeService.queryEmployees(
+                List.of("id:gt:one"), Sort.unsorted(), null, null));
+        assertThrows(InvalidRequest.class, () -> this.employeeService.queryEmployees(
+                List.of("id:eq:1"), Sort.by("version"), null, null));
+        //Conditions on an indexed field that still match the whole table
+        assertThrows(InvalidRequest.class, () -> this.employeeService.queryEmployees(
+                List.of("email:prefix:"), Sort.unsorted(), null, null));
+        assertThrows(InvalidRequest.class, () -> this.employeeService.queryEmployees(
+                List.of("id:ge:0"), Sort.unsorted(), null, null));
+
+        //then
+        verifyNoInteractions(employeeRepository);
+    }
+
+    //JUnit test for export employees method
+    @DisplayName("JUnit test for export employees method")
+    @Test
+    public void givenEmployeeStream_whenExportEmployees_thenPassEachRowAndDetachIt() {
+
+        //given - precondition or setup
+        Employee employee1 = Employee.builder()
+                .id(2L)
+                .firstName("Slayer")
+                .lastName("Araya")
+                .email("666@gmail.com")
+                .build();
+        given(employeeRepository.streamAll()).willReturn(Stream.of(employee, employee1));
+        List<Employee> exported = new ArrayList<>();
+
+        //when - action or the behaviour to be tested
+        this.employeeService.exportEmployees(exported::add);
+
+        //then -verify the output
+        assertThat(exported).containsExactly(employee, employee1);
+        verify(entityManager, times(1)).detach(employee);
+        verify(entityManager, times(1)).detach(employee1);
+    }
+
     //JUnit test for get employee by id
     @DisplayName("JUnit test for get employee by id")
     @Test
@@ -127,6 +649,130 @@ public class EmployeeServiceTests {
         assertThat(savedEmployee.isPresent()).isTrue();
     }
 
+    //JUnit test for get employee by id with an id the existence filter has never seen
+    @DisplayName("JUnit test for get employee by id with an id the existence filter has never seen")
+    @Test
+    public void givenIdAbsentFromExistenceFilter_whenGetEmployeeById_thenReturnEmptyWithoutQuery() {
+
+        //given - precondition or setup
+        given(existenceFilter.mightContainId(99L)).willReturn(false);
+
+        //when - action or the behaviour to be tested
+        Optional<Employee> employeeOptional = this.employeeService.getEmployeeById(99L);
+
+        //then -verify the output
+        assertThat(employeeOptional).isEmpty();
+        verify(employeeRepository, never()).findById(anyLong());
+    }
+
+    //JUnit test for get employee by email with an email the existence filter has never seen
+    @DisplayName("JUnit test for get employee by email with an email the existence filter has never seen")
+    @Test
+    public void givenEmailAbsentFromExistenceFilter_whenGetEmployeeByEmail_thenReturnEmptyWithoutQuery() {
+
+        //given - precondition or setup
+        given(existenceFilter.mightContainEmail("nobody@gmail.com")).willReturn(false);
+
+        //when - action or the behaviour to be tested
+        Optional<Employee> employeeOptional = this.employeeService.getEmployeeByEmail("nobody@gmail.com");
+
+        //then -verify the output
+        assertThat(employeeOptional).isEmpty();
+        verify(employeeRepository, never()).findByEmail(anyString());
+    }
+
+    //JUnit test for get employee by id served from the cache
+    @DisplayName("JUnit test for get employee by id served from the cache")
+    @Test
+    public void givenEmployeeId_whenGetEmployeeByIdTwice_thenLoadFromRepositoryOnlyWhenNotCached() {
+
+        //given - precondition or setup
+        given(employeeRepository.findById(1L)).willAnswer(invocation -> Optional.of(employee.toBuilder().build()));
+
+        //when - action or the behaviour to be tested
+        Employee first = this.employeeService.getEmployeeById(1L).orElseThrow();
+        first.setFirstName("Changed");
+        Employee second = this.employeeService.getEmployeeById(1L).orElseThrow();
+
+        //then -verify the output
+        assertThat(second.getFirstName()).isEqualTo("Dilshan");
+        verify(employeeRepository, times(cacheEnabled() ? 1 : 2)).findById(1L);
+    }
+
+    //JUnit test for update employee method invalidating the cached employee
+    @DisplayName("JUnit test for update employee method invalidating the cached employee")
+    @Test
+    public void givenCachedEmployee_whenUpdateEmployee_thenNextGetLoadsFromRepository() {
+
+        //given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        given(employeeRepository.save(employee)).willReturn(employee);
+        this.employeeService.getEmployeeById(1L);
+
+        //when - action or the behaviour to be tested
+        this.employeeService.updateEmployee(employee);
+        this.employeeService.getEmployeeById(1L);
+
+        //then -verify the output
+        verify(employeeRepository, times(2)).findById(1L);
+    }
+
+    //JUnit test for delete employee method invalidating the cached employee
+    @DisplayName("JUnit test for delete employee method invalidating the cached employee")
+    @Test
+    public void givenCachedEmployee_whenDeleteEmployee_thenNextGetReturnsEmpty() {
+
+        //given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee)).willReturn(Optional.empty());
+        this.employeeService.getEmployeeById(1L);
+
+        //when - action or the behaviour to be tested
+        this.employeeService.deleteEmployee(1L);
+        Optional<Employee> deletedEmployee = this.employeeService.getEmployeeById(1L);
+
+        //then -verify the output
+        assertThat(deletedEmployee).isEmpty();
+    }
+
+    //JUnit test for get employee by email served from the cache
+    @DisplayName("JUnit test for get employee by email served from the cache")
+    @Test
+    public void givenEmployeeEmail_whenGetEmployeeByEmailTwice_thenQueryEmailOnlyWhenNotCached() {
+
+        //given - precondition or setup
+        given(employeeRepository.findByEmail(employee.getEmail())).willReturn(Optional.of(employee));
+        lenient().when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
+
+        //when - action or the behaviour to be tested
+        this.employeeService.getEmployeeByEmail(employee.getEmail());
+        Optional<Employee> cachedEmployee = this.employeeService.getEmployeeByEmail(employee.getEmail());
+
+        //then -verify the output
+        assertThat(cachedEmployee).isPresent();
+        verify(employeeRepository, times(cacheEnabled() ? 1 : 2)).findByEmail(employee.getEmail());
+    }
+
+    //JUnit test for get employee by email after the email moved to another value
+    @DisplayName("JUnit test for get employee by email after the email moved to another value")
+    @Test
+    public void givenEmailChanged_whenGetEmployeeByOldEmail_thenReturnEmpty() {
+
+        //given - precondition or setup
+        String oldEmail = employee.getEmail();
+        Employee updatedEmployee = employee.toBuilder().email("slayer@gmail.com").build();
+        given(employeeRepository.findByEmail(oldEmail)).willReturn(Optional.of(employee)).willReturn(Optional.empty());
+        lenient().when(employeeRepository.findById(1L)).thenReturn(Optional.of(updatedEmployee));
+        given(employeeRepository.save(updatedEmployee)).willReturn(updatedEmployee);
+        this.employeeService.getEmployeeByEmail(oldEmail);
+
+        //when - action or the behaviour to be tested
+        this.employeeService.updateEmployee(updatedEmployee);
+        Optional<Employee> employeeByOldEmail = this.employeeService.getEmployeeByEmail(oldEmail);
+
+        //then -verify the output
+        assertThat(employeeByOldEmail).isEmpty();
+    }
+
     //JUnit test for update employee method
     @DisplayName("JUnit test for update employee method")
     @Test
@@ -148,19 +794,89 @@ public class EmployeeServiceTests {
         assertThat(updatedEmployee.getLastName()).isEqualTo("Borgir");
     }
 
+    //JUnit test for update employee method losing a concurrent update
+    @DisplayName("JUnit test for update employee method losing a concurrent update")
+    @Test
+    public void givenConcurrentUpdate_whenUpdateEmployee_thenThrowAndReloadOnNextGet() {
+
+        //given - precondition or setup
+        given(employeeRepository.findById(employee.getId())).willReturn(Optional.of(employee));
+        given(employeeRepository.save(any(Employee.class)))
+                .willThrow(new ObjectOptimisticLockingFailureException(Employee.class, employee.getId()));
+        this.employeeService.getEmployeeById(employee.getId());
+
+        //when - action or the behaviour to be tested
+        assertThrows(OptimisticLockingFailureException.class, () -> this.employeeService.updateEmployee(employee));
+        this.employeeService.getEmployeeById(employee.getId());
+
+        //then -verify the output
+        verify(employeeRepository, times(2)).findById(employee.getId());
+    }
+
+    //JUnit test for patch employee method invalidating the cached employee
+    @DisplayName("JUnit test for patch employee method invalidating the cached employee")
+    @Test
+    public void givenCachedEmployee_whenPatchEmployee_thenUpdateWithoutReadAndReloadOnNextGet() {
+
+        //given - precondition or setup
+        EmployeePatch patch = new EmployeePatch("Nilanga", null, null);
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee))
+                .willReturn(Optional.of(employee.toBuilder().firstName(patch.firstName()).build()));
+        given(employeeRepository.patch(1L, patch)).willReturn(1);
+        this.employeeService.getEmployeeById(1L);
+
+        //when - action or the behaviour to be tested
+        boolean patched = this.employeeService.patchEmployee(1L, patch);
+        Optional<Employee> patchedEmployee = this.employeeService.getEmployeeById(1L);
+
+        //then -verify the output
+        assertThat(patched).isTrue();
+        assertThat(patchedEmployee).get().extracting(Employee::getFirstName).isEqualTo("Nilanga");
+        verify(employeeRepository, never()).save(any(Employee.class));
+    }
+
+    //JUnit test for patch employee method with an unknown id or an empty patch
+    @DisplayName("JUnit test for patch employee method with an unknown id or an empty patch")
+    @Test
+    public void givenUnknownIdOrEmptyPatch_whenPatchEmployee_thenReturnFalseOrThrows() {
+
+        //given - precondition or setup
+        EmployeePatch patch = new EmployeePatch(null, null, "new@gmail.com");
+        given(employeeRepository.patch(2L, patch)).willReturn(0);
+
+        //when - action or the behaviour to be tested
+        boolean patched = this.employeeService.patchEmployee(2L, patch);
+
+        //then -verify the output
+        assertThat(patched).isFalse();
+        verify(existenceFilter, never()).add(any(Employee.class));
+        verify(listSnapshot, never()).bumpVersion();
+        assertThrows(InvalidRequest.class, () -> this.employeeService.patchEmployee(2L, new EmployeePatch(null, null, null)));
+    }
+
     //JUnit test for delete employee method
     @DisplayName("JUnit test for delete employee method")
     @Test
-    public void givenEmployeeId_whenDeleteEmployeeMethod_thenNothing() {
+    public void givenEmployeeId_whenDeleteEmployeeMethod_thenReturnWhetherDeleted() {
         //given - precondition or setup
         Long employeeId = 1L;
-        willDoNothing().given(this.employeeRepository).deleteById(employeeId);
+        given(this.employeeRepository.deleteEmployeeById(employeeId)).willReturn(1);
+        given(this.employeeRepository.deleteEmployeeById(2L)).willReturn(0);
 
         //when - action or the behaviour to be tested
-        employeeService.deleteEmployee(employeeId);
+        boolean deleted = employeeService.deleteEmployee(employeeId);
+        boolean missing = employeeService.deleteEmployee(2L);
 
         //then -verify the output
-        verify(employeeRepository, times(1)).deleteById(employeeId);
+        assertThat(deleted).isTrue();
+        assertThat(missing).isFalse();
+        verify(employeeRepository, never()).findById(anyLong());
+        verify(employeeRepository, never()).deleteById(anyLong());
+        //Only the delete that removed a row starts a new version of the list
+        verify(listSnapshot, times(1)).bumpVersion();
+        verify(searchIndex, times(1)).remove(employeeId);
+        verify(searchIndex, never()).remove(2L);
+        verify(employeeCounter, times(1)).add(-1);
 
     }
 }
@@ -1,8 +1,15 @@
 package com.dilshan.testing.service;
 
+import com.dilshan.testing.cache.EmployeeCache;
+import com.dilshan.testing.cache.EmployeeExistenceFilter;
+import com.dilshan.testing.cache.EmployeeListSnapshot;
+import com.dilshan.testing.cache.EmployeeCounter;
+import com.dilshan.testing.cache.EmployeeSearchIndex;
+import com.dilshan.testing.config.EmployeeProperties;
 import com.dilshan.testing.model.Employee;
 import com.dilshan.testing.repository.EmployeeRepository;
 import com.dilshan.testing.service.impl.EmployeeServiceImpl;
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
@@ -10,6 +17,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.BDDMockito;
 import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Optional;
 
@@ -25,7 +33,11 @@ public class EmployeeServiceTests_backup {
     @BeforeEach
     public void setup() {
         employeeRepository = Mockito.mock(EmployeeRepository.class);
-        employeeService = new EmployeeServiceImpl(employeeRepository);
+        employeeService = new EmployeeServiceImpl(employeeRepository, new EmployeeProperties(), Mockito.mock(EntityManager.class), Mockito.mock(TransactionTemplate.class),
+                new EmployeeCache(new EmployeeProperties()),
+                new EmployeeExistenceFilter(employeeRepository, new EmployeeProperties()),
+                Mockito.mock(EmployeeListSnapshot.class), Mockito.mock(EmployeeSearchIndex.class),
+                Mockito.mock(EmployeeCounter.class));
     }
 
     //JUnit test for save employee method
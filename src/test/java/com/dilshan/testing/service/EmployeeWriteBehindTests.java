@@ -0,0 +1,100 @@
+package com.dilshan.testing.service;
+
+import com.dilshan.testing.config.EmployeeProperties;
+import com.dilshan.testing.dto.EmployeeSubmission;
+import com.dilshan.testing.exception.InvalidRequest;
+import com.dilshan.testing.exception.ResourceAlreadyExists;
+import com.dilshan.testing.model.Employee;
+import com.dilshan.testing.service.impl.EmployeeWriteBehind;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.*;
+
+public class EmployeeWriteBehindTests {
+
+    //JUnit test for queued employees written in one batch
+    @DisplayName("JUnit test for queued employees written in one batch")
+    @Test
+    public void givenSubmittedEmployees_whenWriterDrainsQueue_thenReportEachOutcome() {
+
+        //given - precondition or setup
+        EmployeeService employeeService = mock(EmployeeService.class);
+        AtomicLong ids = new AtomicLong();
+        List<Integer> batchSizes = new ArrayList<>();
+        given(employeeService.saveNewEmployees(anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            batchSizes.add(employees.size());
+            List<RuntimeException> outcomes = new ArrayList<>();
+            for (Employee employee : employees) {
+                if (employee.getEmail().startsWith("taken")) {
+                    outcomes.add(new ResourceAlreadyExists("Employee already exists with given email. " + employee.getEmail()));
+                } else if (employee.getEmail().startsWith("bad")) {
+                    outcomes.add(new DataIntegrityViolationException("Data too long for column 'first_name'"));
+                } else {
+                    employee.setId(ids.incrementAndGet());
+                    outcomes.add(null);
+                }
+            }
+            return outcomes;
+        });
+        EmployeeProperties properties = new EmployeeProperties();
+        properties.getWriteBehind().setEnabled(true);
+        EmployeeWriteBehind writeBehind = new EmployeeWriteBehind(employeeService, properties);
+
+        //when - action or the behaviour to be tested
+        //Submitted before the writer starts, so all of them are in its first batch
+        EmployeeSubmission created = writeBehind.submit(employee("test@gmail.com")).orElseThrow();
+        EmployeeSubmission rejected = writeBehind.submit(employee("taken@gmail.com")).orElseThrow();
+        EmployeeSubmission failed = writeBehind.submit(employee("bad@gmail.com")).orElseThrow();
+        EmployeeSubmission createdAfterFailure = writeBehind.submit(employee("other@gmail.com")).orElseThrow();
+        assertThat(writeBehind.getSubmission(created.id()).orElseThrow().status()).isEqualTo(EmployeeSubmission.Status.QUEUED);
+        writeBehind.start();
+        writeBehind.stop();
+
+        //then -verify the output
+        assertThat(batchSizes).containsExactly(4);
+        assertThat(writeBehind.getSubmission(created.id())).contains(EmployeeSubmission.created(created.id(), 1L));
+        assertThat(writeBehind.getSubmission(rejected.id()).orElseThrow().status()).isEqualTo(EmployeeSubmission.Status.REJECTED);
+        //Each submission gets its own outcome, one failed row does not fail the batch
+        assertThat(writeBehind.getSubmission(failed.id()).orElseThrow().status()).isEqualTo(EmployeeSubmission.Status.FAILED);
+        assertThat(writeBehind.getSubmission(createdAfterFailure.id())).contains(EmployeeSubmission.created(createdAfterFailure.id(), 2L));
+        assertThat(writeBehind.getSubmission("unknown")).isEmpty();
+    }
+
+    //JUnit test for submissions the queue cannot take
+    @DisplayName("JUnit test for submissions the queue cannot take")
+    @Test
+    public void givenFullQueueOrInvalidEmployee_whenSubmit_thenRejectWithoutQueueing() {
+
+        //given - precondition or setup
+        EmployeeProperties properties = new EmployeeProperties();
+        properties.getWriteBehind().setEnabled(true);
+        properties.getWriteBehind().setQueueCapacity(1);
+        EmployeeWriteBehind writeBehind = new EmployeeWriteBehind(mock(EmployeeService.class), properties);
+
+        //when - action or the behaviour to be tested
+        writeBehind.submit(employee("test@gmail.com"));
+
+        //then -verify the output
+        assertThat(writeBehind.submit(employee("other@gmail.com"))).isEmpty();
+        assertThrows(InvalidRequest.class, () -> writeBehind.submit(Employee.builder().firstName("Dilshan").build()));
+        assertThrows(InvalidRequest.class, () -> writeBehind.submit(employee("a".repeat(Employee.COLUMN_LENGTH) + "@gmail.com")));
+    }
+
+    private static Employee employee(String email) {
+        return Employee.builder()
+                .id(42L)
+                .firstName("Dilshan")
+                .lastName("Wijetunga")
+                .email(email)
+                .build();
+    }
+}
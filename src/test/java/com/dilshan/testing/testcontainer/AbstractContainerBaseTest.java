@@ -3,13 +3,14 @@ package com.dilshan.testing.testcontainer;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.utility.DockerImageName;
 
 public abstract class AbstractContainerBaseTest {
 
-    static final MySQLContainer MY_SQL_CONTAINER;
+    protected static final MySQLContainer MY_SQL_CONTAINER;
 
     static {
-        MY_SQL_CONTAINER = new MySQLContainer()
+        MY_SQL_CONTAINER = new MySQLContainer(DockerImageName.parse("mysql:8.0"))
                 .withDatabaseName("ems")
                 .withUsername("username")
                 .withPassword("password");
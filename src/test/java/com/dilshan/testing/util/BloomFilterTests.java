@@ -0,0 +1,54 @@
+package com.dilshan.testing.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BloomFilterTests {
+
+    //JUnit test for values put into the filter
+    @DisplayName("JUnit test for values put into the filter")
+    @Test
+    public void givenPutValues_whenMightContain_thenReturnTrueForEveryValue() {
+
+        //given - precondition or setup
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (long id = 1; id <= 10_000; id++) {
+            filter.put(id);
+            filter.put("employee" + id + "@gmail.com");
+        }
+
+        //when - action or the behaviour to be tested
+        //then -verify the output
+        for (long id = 1; id <= 10_000; id++) {
+            assertThat(filter.mightContain(id)).isTrue();
+            assertThat(filter.mightContain("employee" + id + "@gmail.com")).isTrue();
+        }
+    }
+
+    //JUnit test for the false positive rate of a filter filled to its expected insertions
+    @DisplayName("JUnit test for the false positive rate of a filter filled to its expected insertions")
+    @Test
+    public void givenFilledFilter_whenMightContainUnknownValues_thenFalsePositiveRateStaysNearTarget() {
+
+        //given - precondition or setup
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (long id = 1; id <= 10_000; id++) {
+            filter.put(id);
+        }
+
+        //when - action or the behaviour to be tested
+        int falsePositives = 0;
+        for (long id = 1_000_000; id < 1_100_000; id++) {
+            if (filter.mightContain(id)) {
+                falsePositives++;
+            }
+        }
+
+        //then -verify the output
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+        assertThat(filter.expectedFalsePositiveProbability()).isBetween(0.005, 0.02);
+        assertThat(filter.memoryBytes()).isGreaterThan(0);
+    }
+}
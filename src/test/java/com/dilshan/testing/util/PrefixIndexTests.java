@@ -0,0 +1,56 @@
+package com.dilshan.testing.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PrefixIndexTests {
+
+    //JUnit test for a prefix matching several terms
+    @DisplayName("JUnit test for a prefix matching several terms")
+    @Test
+    public void givenIndexedTerms_whenSearch_thenReturnDistinctIdsInTermOrderUpToLimit() {
+
+        //given - precondition or setup
+        PrefixIndex index = new PrefixIndex();
+        index.update(3L, List.of(), List.of("Dimmu", "Borgir", "dimmu@gmail.com"));
+        index.update(1L, List.of(), Arrays.asList("Dilshan", null, "test@gmail.com"));
+        index.update(2L, List.of(), List.of("Dilshan", "Dias", "dilshan@gmail.com"));
+
+        //when - action or the behaviour to be tested
+        long[] ids = index.search("DI", 10);
+
+        //then -verify the output
+        //dias (2), dilshan (1, 2), dilshan@gmail.com (2), dimmu (3), dimmu@gmail.com (3)
+        assertThat(ids).containsExactly(2L, 1L, 3L);
+        assertThat(index.search("di", 2)).containsExactly(2L, 1L);
+        assertThat(index.search("dilshan@", 10)).containsExactly(2L);
+        assertThat(index.search("x", 10)).isEmpty();
+    }
+
+    //JUnit test for moving an id to new terms
+    @DisplayName("JUnit test for moving an id to new terms")
+    @Test
+    public void givenUpdatedTerms_whenSearch_thenMatchOnlyTheNewTerms() {
+
+        //given - precondition or setup
+        PrefixIndex index = new PrefixIndex();
+        index.update(1L, List.of(), List.of("Dan", "Dan", "dan@gmail.com"));
+        index.update(2L, List.of(), List.of("Dan", "Smith", "smith@gmail.com"));
+
+        //when - action or the behaviour to be tested
+        //The last name keeps the id under "dan" although the first name moves away from it
+        index.update(1L, List.of("Dan", "Dan", "dan@gmail.com"), List.of("Nilanga", "Dan", "nilanga@gmail.com"));
+        index.update(2L, List.of("Dan", "Smith", "smith@gmail.com"), List.of());
+
+        //then -verify the output
+        assertThat(index.search("dan", 10)).containsExactly(1L);
+        assertThat(index.search("nil", 10)).containsExactly(1L);
+        assertThat(index.search("smith", 10)).isEmpty();
+        assertThat(index.termCount()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,14 @@
+-- Tables Hibernate creates on MySQL for the Employee entity, for the reactive tests on H2
+CREATE TABLE IF NOT EXISTS employees (
+    id BIGINT NOT NULL PRIMARY KEY,
+    first_name VARCHAR(255) NOT NULL,
+    last_name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    version BIGINT NOT NULL,
+    CONSTRAINT uk_employees_email UNIQUE (email)
+);
+CREATE INDEX IF NOT EXISTS idx_employees_last_first ON employees (last_name, first_name);
+CREATE TABLE IF NOT EXISTS employees_seq (
+    next_val BIGINT
+);
+INSERT INTO employees_seq (next_val) SELECT 1 WHERE NOT EXISTS (SELECT 1 FROM employees_seq);